@@ -11,4 +11,5 @@ module newyava {
 	requires lombok;
 
 	requires java.compiler;
+	requires jdk.jfr;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package x590.newyava;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: выполнение стадии декомпиляции для одного класса
+ * ({@link DecompilingClass#decompile}, {@link DecompilingClass#processVariables},
+ * {@link DecompilingClass#computeImports} и т.д.). Включает время методов класса.
+ */
+@Name("x590.newyava.ClassStage")
+@Label("Class Stage")
+@Description("Decompilation stage of a single class")
+@Category({"NewYava", "Classes"})
+@StackTrace(false)
+final class ClassStageEvent extends Event {
+
+	@Label("Class")
+	String className;
+
+	@Label("Stage")
+	String stage;
+
+	@Label("Outcome")
+	@Description("success or failure")
+	String outcome;
+}
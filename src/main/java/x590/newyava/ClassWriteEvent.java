@@ -0,0 +1,26 @@
+package x590.newyava;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: запись класса верхнего уровня. При параллельной записи
+ * охватывает запись класса в память, а не передачу текста в {@link x590.newyava.io.WriterFactory WriterFactory}.
+ */
+@Name("x590.newyava.ClassWrite")
+@Label("Class Write")
+@Description("Writing of a single top-level class")
+@Category({"NewYava", "Classes"})
+@StackTrace(false)
+final class ClassWriteEvent extends Event {
+
+	@Label("Class")
+	String className;
+
+	@Label("Length")
+	@Description("Number of written characters")
+	long length;
+
+	@Label("Outcome")
+	@Description("success or failure")
+	String outcome;
+}
@@ -3,8 +3,10 @@ package x590.newyava;
 import lombok.Builder;
 import lombok.Getter;
 import org.jetbrains.annotations.Nullable;
+import x590.newyava.cache.DecompilationCache;
+import x590.newyava.classpath.ClassPath;
 
-@Builder
+@Builder(toBuilder = true)
 public class Config {
 	/** Единичный отступ в коде. Обычно это пробелы или табуляция. */
 	@Getter
@@ -34,12 +36,96 @@ public class Config {
 	/** Если {@code true}, вместо стектрейса исключений будет выводиться только само исключение. */
 	private final boolean skipStackTrace;
 
+	/** Количество потоков, которые используются для параллельных стадий декомпиляции.
+	 * По умолчанию равно количеству доступных процессоров. */
+	@Getter
+	@Builder.Default
+	private final int threads = Runtime.getRuntime().availableProcessors();
+
+	/** Если {@code true}, то class-файлы будут читаться параллельно в {@link #getThreads()} потоках.
+	 * Порядок классов при этом не меняется. */
+	private final boolean parallelReading;
+
+	/** Если {@code true}, то классы будут записываться в память параллельно в {@link #getThreads()} потоках,
+	 * а {@link x590.newyava.io.WriterFactory WriterFactory} будет получать их в исходном порядке из одного потока. */
+	private final boolean parallelWriting;
+
+	/** Путь поиска библиотечных классов, т.е. классов, которые не декомпилируются,
+	 * но сведения о которых нужны для декомпиляции. Классы из этого пути не загружаются в JVM.
+	 * По умолчанию включает классы текущей JDK и классы из {@code java.class.path}. */
+	@Getter
+	@Builder.Default
+	private final ClassPath libraryClassPath = ClassPath.system();
+
+	/** Максимальное количество библиотечных классов, которые хранятся в кеше.
+	 * При превышении редко используемые классы вытесняются и при необходимости читаются заново. */
+	@Getter
+	@Builder.Default
+	private final int libraryCacheSize = 4096;
+
+	/** Если больше нуля, то включает потоковый режим: сначала все классы читаются без кода методов,
+	 * а затем классы верхнего уровня вместе с вложенными классами читаются полностью, декомпилируются
+	 * и записываются окнами. Значение задаёт максимальный суммарный размер class-файлов (в байтах)
+	 * одного окна, включая классы, от которых оно зависит. Таким образом, пиковое потребление памяти
+	 * определяется размером окна, а не размером всех входных данных. */
+	@Getter
+	private final long streamingMemoryBudget;
+
+	/** Постоянный кеш декомпилированных классов. Если задан, то классы верхнего уровня,
+	 * которые вместе с вложенными классами и зависимостями не изменились с прошлого запуска,
+	 * берутся из кеша без декомпиляции. Классы при этом читаются так же, как в потоковом режиме
+	 * (см. {@link #getStreamingMemoryBudget()}), а найденные в кеше записываются раньше остальных. */
+	@Getter
+	private final @Nullable DecompilationCache cache;
+
+	/** Если больше нуля, то ограничивает время декомпиляции одного метода (в миллисекундах).
+	 * Учитывается время всех стадий, кроме записи. При превышении вместо кода метода
+	 * записывается сообщение об ошибке, как при исключении, даже если {@link #failOnDecompilationException()}
+	 * равно {@code true}. Количество таких методов выводится в конце декомпиляции. */
+	@Getter
+	private final long methodTimeBudget;
+
+	/** Если больше нуля, то ограничивает суммарное время декомпиляции методов одного класса (в миллисекундах).
+	 * При превышении код всех ещё не обработанных методов класса заменяется сообщением об ошибке,
+	 * как и при превышении {@link #getMethodTimeBudget()}. */
+	@Getter
+	private final long classTimeBudget;
+
+	/** Получает метрики декомпиляции (см. {@link DecompilationListener}).
+	 * Если не задан, то используется {@link ConsoleDecompilationListener}. */
+	private final @Nullable DecompilationListener listener;
+
 	public boolean ignoreVariableTable() { return ignoreVariableTable; }
 	public boolean canOmitBrackets() { return !alwaysWriteBrackets; }
 	public boolean canOmitThisAndClass() { return !alwaysWriteThisAndClass; }
 	public boolean importNestedClasses() { return importNestedClasses; }
 	public boolean failOnDecompilationException() { return failOnDecompilationException; }
 	public boolean skipStackTrace() { return skipStackTrace; }
+	public boolean parallelReading() { return parallelReading; }
+	public boolean parallelWriting() { return parallelWriting; }
+	public boolean streaming() { return streamingMemoryBudget > 0; }
+
+	public DecompilationListener getListener() {
+		return listener != null ? listener :
+				skipStackTrace ? ConsoleDecompilationListener.SKIP_STACK_TRACE : ConsoleDecompilationListener.INSTANCE;
+	}
+
+	/** @return строку, которая меняется при изменении настроек, влияющих на текст классов.
+	 * Используется как часть ключа {@link DecompilationCache}. Также включает версию JDK
+	 * и {@link ClassPath#fingerprint()} пути библиотечных классов, так как от них зависит текст классов. */
+	String outputFingerprint() {
+		return String.join(";",
+				"indent=" + indent,
+				"ignoreVariableTable=" + ignoreVariableTable,
+				"alwaysWriteBrackets=" + alwaysWriteBrackets,
+				"alwaysWriteThisAndClass=" + alwaysWriteThisAndClass,
+				"importNestedClasses=" + importNestedClasses,
+				"methodTimeBudget=" + methodTimeBudget,
+				"classTimeBudget=" + classTimeBudget,
+				"jdk=" + Runtime.version(),
+				"classPath=" + libraryClassPath.fingerprint()
+		);
+	}
 
 
 	private static @Nullable Config defaultInstance;
@@ -0,0 +1,81 @@
+package x590.newyava;
+
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import x590.newyava.descriptor.MethodDescriptor;
+import x590.newyava.type.ClassType;
+
+/**
+ * Выводит время этапов и стадий и сводку запуска в {@link System#out}, а ошибки - в {@link System#err}.
+ * Метрики отдельных классов и методов не выводятся.
+ */
+public class ConsoleDecompilationListener implements DecompilationListener {
+
+	/** Выводит стектрейс исключений в методах. */
+	public static final ConsoleDecompilationListener INSTANCE = new ConsoleDecompilationListener(false);
+
+	/** Выводит только само исключение в методе, см. {@link Config#skipStackTrace()}. */
+	public static final ConsoleDecompilationListener SKIP_STACK_TRACE = new ConsoleDecompilationListener(true);
+
+	private final boolean skipStackTrace;
+
+	private ConsoleDecompilationListener(boolean skipStackTrace) {
+		this.skipStackTrace = skipStackTrace;
+	}
+
+	@Override
+	public void phaseFinished(String phase, long time) {
+		System.out.println(phase + ": " + format(time));
+	}
+
+	@Override
+	public void stageFinished(String stage, long time) {
+		System.out.printf("Time for stage %20s: %s (in all threads)\n", stage, format(time));
+	}
+
+	@Override
+	public void methodFailed(MethodDescriptor method, Throwable exception, int instructions) {
+		if (skipStackTrace) {
+			System.err.println(exception.getClass().getSimpleName() + "|" + exception.getMessage() + "|" +
+					instructions + "|" + method);
+		} else {
+			exception.printStackTrace();
+		}
+	}
+
+	@Override
+	public void classReadFailed(Object source, Throwable exception) {
+		System.err.println("Exception while reading class " + source);
+	}
+
+	@Override
+	public void classFailed(ClassType classType, String stage, Throwable exception) {
+		if (stage.equals("write")) {
+			System.err.println("Exception while writing class " + classType);
+		} else {
+			System.err.printf("Exception on stage `%s` while processing class %s\n", stage, classType);
+		}
+	}
+
+	@Override
+	public void runFinished(RunSummary summary) {
+		System.out.println("Total: " + format(summary.time()));
+
+		if (summary.windows() > 0) {
+			System.out.println("Windows: " + summary.windows());
+		}
+
+		System.out.println("Library classes: " + summary.libraryClasses());
+
+		if (summary.cache() != null) {
+			System.out.println("Cache: " + summary.cache());
+		}
+
+		if (summary.timeouts() > 0) {
+			System.out.println("Timeouts: " + summary.timeouts());
+		}
+	}
+
+	private static String format(long time) {
+		return DurationFormatUtils.formatDurationHMS(time / 1_000_000);
+	}
+}
@@ -0,0 +1,101 @@
+package x590.newyava;
+
+import org.jetbrains.annotations.Nullable;
+import x590.newyava.cache.DecompilationCache;
+import x590.newyava.descriptor.MethodDescriptor;
+import x590.newyava.type.ClassType;
+
+/**
+ * Получает метрики декомпиляции: время этапов, стадий, классов и методов, размеры методов,
+ * размер записанных классов и ошибки. Задаётся в {@link Config#getListener()}.
+ * По умолчанию используется {@link ConsoleDecompilationListener}, который выводит сводку в консоль.
+ * <p>
+ * Методы вызываются из разных потоков, поэтому реализация должна быть потокобезопасной.
+ * Методы, вызываемые для каждого класса и метода, вызываются часто и не должны выполнять долгих операций.
+ * Все времена указаны в наносекундах.
+ * <p>
+ * Независимо от слушателя, время стадий классов, действий над методами и записи классов
+ * записывается в события JFR {@code x590.newyava.ClassStage}, {@code x590.newyava.MethodStage}
+ * и {@code x590.newyava.ClassWrite}, если запись JFR включена.
+ */
+public interface DecompilationListener {
+
+	/** Ничего не делает. */
+	DecompilationListener NONE = new DecompilationListener() {};
+
+	/**
+	 * Вызывается после завершения этапа запуска.
+	 * @param phase название этапа: {@code "Reading"}, {@code "Indexing"}, {@code "Decompilation"},
+	 *              {@code "Writing"} или {@code "Decompilation and writing"}.
+	 */
+	default void phaseFinished(String phase, long time) {}
+
+	/**
+	 * Вызывается после завершения стадии для всех классов.
+	 * @param time суммарное время выполнения стадии во всех потоках.
+	 */
+	default void stageFinished(String stage, long time) {}
+
+	/** Вызывается после выполнения стадии для одного класса (включая время его методов). */
+	default void classStageFinished(ClassType classType, String stage, long time) {}
+
+	/**
+	 * Вызывается после выполнения действия над кодом метода. Вызывается только для методов с кодом.
+	 * @param stage название действия. Стадии класса могут состоять из нескольких действий над методом:
+	 *              {@code "decompile"}, {@code "afterDecompilation"}, {@code "beforeVariablesInit"},
+	 *              {@code "initVariables"}, {@code "inferVariableTypesAndNames"}.
+	 */
+	default void methodStageFinished(MethodDescriptor method, String stage, long time) {}
+
+	/**
+	 * Вызывается после успешной декомпиляции кода метода.
+	 * @param instructions количество инструкций.
+	 * @param chunks количество чанков (линейных участков кода).
+	 * @param scopes количество найденных {@link x590.newyava.decompilation.scope.Scope Scope}-ов
+	 *               (циклов, условий, {@code switch}, {@code try}/{@code catch}), не считая тела метода.
+	 */
+	default void methodDecompiled(MethodDescriptor method, int instructions, int chunks, int scopes) {}
+
+	/**
+	 * Вызывается, когда декомпиляция метода прервана исключением и код метода заменён сообщением об ошибке.
+	 * @param exception исключение (без обёртки {@link x590.newyava.exception.DecompilationException}, если она есть).
+	 * @param instructions количество инструкций метода.
+	 */
+	default void methodFailed(MethodDescriptor method, Throwable exception, int instructions) {}
+
+	/**
+	 * Вызывается, когда не удалось прочитать класс или его скелет. После этого исключение пробрасывается дальше.
+	 * @param source источник класса, из которого он читался (например, {@link Class}, имя класса или {@link java.util.zip.ZipEntry}).
+	 */
+	default void classReadFailed(Object source, Throwable exception) {}
+
+	/**
+	 * Вызывается, когда исключение прерывает обработку класса. После этого исключение пробрасывается дальше.
+	 * @param stage название стадии или {@code "write"}, если исключение возникло при записи.
+	 */
+	default void classFailed(ClassType classType, String stage, Throwable exception) {}
+
+	/**
+	 * Вызывается после записи класса верхнего уровня.
+	 * @param chars количество записанных символов. Это не размер в байтах: кодировку
+	 *              выбирает {@link x590.newyava.io.WriterFactory}, и количество байтов зависит от неё.
+	 */
+	default void classWritten(ClassType classType, long chars) {}
+
+	/** Вызывается в конце запуска. */
+	default void runFinished(RunSummary summary) {}
+
+
+	/**
+	 * Сводка запуска.
+	 * @param time общее время запуска.
+	 * @param libraryClasses статистика кеша библиотечных классов.
+	 * @param cache статистика {@link Config#getCache()} или {@code null}, если кеш не задан.
+	 * @param timeouts количество методов, декомпиляция которых прервана из-за превышения бюджета времени.
+	 * @param windows количество окон в потоковом режиме или при использовании кеша, иначе {@code 0}.
+	 */
+	record RunSummary(
+			long time, LibraryCacheStats libraryClasses, DecompilationCache.@Nullable Stats cache,
+			long timeouts, int windows
+	) {}
+}
@@ -0,0 +1,228 @@
+package x590.newyava;
+
+import org.jetbrains.annotations.Unmodifiable;
+import x590.newyava.type.IClassArrayType;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Планировщик стадий декомпиляции без общих барьеров между стадиями.
+ * <p>
+ * Классы разбиваются на гнёзда: класс верхнего уровня вместе со всеми вложенными,
+ * локальными и анонимными классами. Гнёзда разделяют состояние (импорты, переменные),
+ * поэтому стадия выполняется для всего гнезда одной задачей.
+ * <p>
+ * Гнездо переходит к следующей стадии, как только предыдущая стадия завершена у него самого
+ * и у всех гнёзд, на классы которых ссылаются пулы констант его классов (через эти ссылки
+ * читаются результаты других классов: карты {@code switch} по enum, конструкторы, сигнатуры методов).
+ * Таким образом, один медленный класс задерживает только зависящие от него гнёзда.
+ * <p>
+ * Код гнезда освобождается, как только записано само гнездо и все гнёзда, которые от него зависят.
+ */
+final class DecompilationScheduler {
+
+	/**
+	 * Стадия декомпиляции.
+	 * @param perClass если {@code true}, то классы гнезда обрабатываются отдельными задачами.
+	 *                 Допустимо только для стадий, которые не затрагивают другие классы гнезда.
+	 */
+	record Stage(String name, Consumer<DecompilingClass> method, boolean perClass) {}
+
+	private final ExecutorService service;
+
+	private final DecompilationListener listener;
+
+	/** Классы каждого гнезда в исходном порядке. */
+	private final @Unmodifiable List<List<DecompilingClass>> nests;
+
+	/** Индекс гнезда по классу верхнего уровня. */
+	private final Map<DecompilingClass, Integer> nestIndexes;
+
+	/** Индексы гнёзд, от которых зависит каждое гнездо (без него самого). */
+	private final @Unmodifiable List<int[]> dependencies;
+
+	/** Количество ещё не записанных гнёзд, которые читают каждое гнездо (включая само гнездо). */
+	private final int[] unwrittenReaders;
+
+	/** Futures последней запланированной стадии для каждого гнезда. */
+	private List<CompletableFuture<Void>> current;
+
+	/** Суммарное время выполнения каждой стадии во всех потоках. */
+	private final Map<String, LongAdder> stageTimes = new LinkedHashMap<>();
+
+	DecompilationScheduler(@Unmodifiable Map<IClassArrayType, DecompilingClass> classMap, ExecutorService service,
+	                       DecompilationListener listener) {
+		this.service = service;
+		this.listener = listener;
+
+		Map<DecompilingClass, List<DecompilingClass>> nestMap = new LinkedHashMap<>();
+
+		for (var decompilingClass : classMap.values()) {
+			nestMap.computeIfAbsent(decompilingClass.getTopLevelClass(), clazz -> new ArrayList<>()).add(decompilingClass);
+		}
+
+		this.nests = List.copyOf(nestMap.values());
+		this.nestIndexes = new HashMap<>();
+
+		Map<String, Integer> nestByName = new HashMap<>();
+
+		for (int i = 0, s = nests.size(); i < s; i++) {
+			nestIndexes.put(nests.get(i).get(0).getTopLevelClass(), i);
+
+			for (var decompilingClass : nests.get(i)) {
+				nestByName.put(decompilingClass.getThisType().getClassBinName(), i);
+			}
+		}
+
+		List<int[]> dependencies = new ArrayList<>(nests.size());
+
+		for (int i = 0, s = nests.size(); i < s; i++) {
+			int self = i;
+
+			dependencies.add(nests.get(i).stream()
+					.flatMap(clazz -> clazz.getReferencedClassNames().stream())
+					.map(nestByName::get)
+					.filter(index -> index != null && index != self)
+					.mapToInt(Integer::intValue)
+					.distinct().toArray());
+		}
+
+		this.dependencies = Collections.unmodifiableList(dependencies);
+
+		this.unwrittenReaders = new int[nests.size()];
+		Arrays.fill(unwrittenReaders, 1);
+
+		for (int[] deps : dependencies) {
+			for (int dep : deps) {
+				unwrittenReaders[dep] += 1;
+			}
+		}
+
+		this.current = Collections.nCopies(nests.size(), CompletableFuture.completedFuture(null));
+	}
+
+	/** Планирует стадию для всех гнёзд. Задачи начинают выполняться сразу, как только готовы зависимости. */
+	void schedule(Stage stage) {
+		var time = new LongAdder();
+		stageTimes.put(stage.name(), time);
+
+		List<CompletableFuture<Void>> next = new ArrayList<>(nests.size());
+
+		for (int i = 0, s = nests.size(); i < s; i++) {
+			var nest = nests.get(i);
+			var ready = ready(i);
+
+			if (stage.perClass()) {
+				next.add(ready.thenCompose(ignored -> CompletableFuture.allOf(nest.stream()
+						.map(clazz -> CompletableFuture.runAsync(() -> execute(stage, List.of(clazz), time), service))
+						.toArray(CompletableFuture[]::new))));
+
+			} else {
+				next.add(ready.thenRunAsync(() -> execute(stage, nest, time), service));
+			}
+		}
+
+		current = next;
+	}
+
+	/** @return future, который завершается, когда все запланированные стадии выполнены
+	 * для гнезда с указанным индексом и для всех гнёзд, от которых оно зависит. */
+	private CompletableFuture<Void> ready(int nestIndex) {
+		var deps = dependencies.get(nestIndex);
+
+		if (deps.length == 0)
+			return current.get(nestIndex);
+
+		var futures = new CompletableFuture<?>[deps.length + 1];
+		futures[0] = current.get(nestIndex);
+
+		for (int i = 0; i < deps.length; i++) {
+			futures[i + 1] = current.get(deps[i]);
+		}
+
+		return CompletableFuture.allOf(futures);
+	}
+
+	/** @return future, который завершается, когда все запланированные стадии выполнены
+	 * для гнезда указанного класса верхнего уровня и для всех гнёзд, от которых оно зависит. */
+	CompletableFuture<Void> ready(DecompilingClass topLevelClass) {
+		return ready(nestIndexes.get(topLevelClass));
+	}
+
+	/**
+	 * Отмечает гнездо указанного класса верхнего уровня как записанное и освобождает код
+	 * всех гнёзд, которые больше никем не читаются. Должен вызываться из одного потока,
+	 * после того как все стадии для гнезда выполнены.
+	 */
+	void written(DecompilingClass topLevelClass) {
+		int nestIndex = nestIndexes.get(topLevelClass);
+
+		release(nestIndex);
+
+		for (int dep : dependencies.get(nestIndex)) {
+			release(dep);
+		}
+	}
+
+	private void release(int nestIndex) {
+		if (--unwrittenReaders[nestIndex] == 0) {
+			nests.get(nestIndex).forEach(DecompilingClass::releaseCode);
+		}
+	}
+
+	/** Дожидается выполнения всех запланированных стадий.
+	 * Исключение, возникшее в стадии, пробрасывается без обёртки (кроме проверяемых исключений). */
+	void join() {
+		try {
+			CompletableFuture.allOf(current.toArray(CompletableFuture[]::new)).join();
+
+		} catch (CompletionException ex) {
+			switch (ex.getCause()) {
+				case RuntimeException runtimeException -> throw runtimeException;
+				case Error error -> throw error;
+				default -> throw ex;
+			}
+		}
+	}
+
+	/** Передаёт суммарное время выполнения каждой стадии во всех потоках в {@link DecompilationListener}. */
+	void reportStageTimes() {
+		stageTimes.forEach((stage, time) -> listener.stageFinished(stage, time.sum()));
+	}
+
+	private void execute(Stage stage, List<DecompilingClass> classes, LongAdder time) {
+		for (var decompilingClass : classes) {
+			var event = new ClassStageEvent();
+			event.begin();
+
+			long start = System.nanoTime();
+			boolean success = false;
+
+			try {
+				stage.method().accept(decompilingClass);
+				success = true;
+			} catch (Throwable throwable) {
+				listener.classFailed(decompilingClass.getThisType(), stage.name(), throwable);
+				throw throwable;
+			} finally {
+				long classTime = System.nanoTime() - start;
+				time.add(classTime);
+				listener.classStageFinished(decompilingClass.getThisType(), stage.name(), classTime);
+
+				event.end();
+
+				if (event.shouldCommit()) {
+					event.className = decompilingClass.getThisType().getName();
+					event.stage = stage.name();
+					event.outcome = success ? "success" : "failure";
+					event.commit();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,245 @@
+package x590.newyava;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import x590.newyava.classpath.ClassPath;
+import x590.newyava.io.ConsoleWriterFactory;
+import x590.newyava.type.ClassType;
+import x590.newyava.type.IClassArrayType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Долгоживущий сервис, декомпилирующий классы по одному по запросу.
+ * <p>
+ * В отличие от {@link Decompiler#run(Class[])}, не читает все классы заранее. Для запрошенного класса
+ * из {@link ClassPath} читается только его гнездо (класс верхнего уровня со всеми вложенными, локальными
+ * и анонимными классами, найденными по ссылкам из пула констант), а классы, на которые ссылается гнездо, -
+ * только как скелеты, без кода методов. Остальные классы, в том числе суперклассы скелетов,
+ * ищутся как библиотечные, сначала в {@code classPath}, затем в {@link Config#getLibraryClassPath()}.
+ * <p>
+ * Результаты кешируются по имени класса верхнего уровня, поэтому запросы любых классов гнезда
+ * используют одну запись. Размер кеша ограничен. Потокобезопасен: классы, найденные в кеше,
+ * возвращаются без блокировок, разные гнёзда декомпилируются одновременно, а одновременные запросы
+ * классов одного гнезда ждут одной декомпиляции.
+ */
+public class DecompilationService {
+
+	/** Максимальное количество классов в кеше по умолчанию. */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
+	private final Decompiler decompiler;
+
+	private final ClassPath classPath;
+
+	/** Текст классов верхнего уровня по их бинарным именам. */
+	private final Cache<String, String> cache;
+
+	/** Бинарные имена классов верхнего уровня по бинарным именам запрошенных классов. */
+	private final Cache<String, String> topLevelNames;
+
+	public DecompilationService(Config config, ClassPath classPath) {
+		this(config, classPath, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param classPath путь, в котором ищутся декомпилируемые классы.
+	 * @param cacheSize максимальное количество декомпилированных классов в кеше.
+	 */
+	public DecompilationService(Config config, ClassPath classPath, int cacheSize) {
+		this.decompiler = new Decompiler(
+				config.toBuilder().libraryClassPath(ClassPath.of(classPath, config.getLibraryClassPath())).build(),
+				ConsoleWriterFactory.INSTANCE
+		);
+
+		this.classPath = classPath;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.recordStats()
+				.build();
+
+		this.topLevelNames = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.build();
+	}
+
+	/**
+	 * Декомпилирует класс верхнего уровня, в котором объявлен указанный класс.
+	 * @param className полное имя класса, в качестве разделителя можно использовать {@literal .} или {@literal /}.
+	 *                  Для вложенных классов нужно использовать бинарное имя ({@code java.util.Map$Entry}).
+	 * @return исходный код класса верхнего уровня.
+	 * @throws UncheckedIOException если класс не найден или не удалось его прочитать.
+	 */
+	public String decompileToString(String className) {
+		var classBinName = className.replace('.', '/');
+
+		try {
+			// Загрузка выполняется без общей блокировки: Guava блокирует только запросы того же ключа
+			var topLevelName = topLevelNames.get(classBinName, () -> findTopLevelName(classBinName));
+			return cache.get(topLevelName, () -> decompile(topLevelName));
+
+		} catch (ExecutionException | UncheckedExecutionException ex) {
+			if (ex.getCause() instanceof IOException ioException)
+				throw new UncheckedIOException(ioException);
+
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new IllegalStateException(ex); // Загрузчики бросают только IOException
+		}
+	}
+
+	/** Удаляет все классы из кеша. Нужно вызывать, если изменилось содержимое {@code classPath}. */
+	public void invalidateAll() {
+		cache.invalidateAll();
+		topLevelNames.invalidateAll();
+	}
+
+	/** @return статистику кеша декомпилированных классов. */
+	public CacheStats getCacheStats() {
+		return cache.stats();
+	}
+
+	/** @return количество декомпилированных классов в кеше. */
+	public long getCacheSize() {
+		return cache.size();
+	}
+
+	/**
+	 * Поднимается по внешним классам до класса верхнего уровня. Классы читаются как скелеты.
+	 * @return бинарное имя класса верхнего уровня. Если внешний класс не найден,
+	 * то классом верхнего уровня считается последний найденный класс.
+	 */
+	private String findTopLevelName(String classBinName) throws IOException {
+		var bytes = classPath.findClass(classBinName);
+
+		if (bytes == null)
+			throw new IOException("Class is not found: " + classBinName);
+
+		var topLevelName = classBinName;
+		var outerType = new DecompilingClass(decompiler, new ClassReader(bytes), ClassReader.SKIP_CODE).getOuterClassType();
+
+		while (outerType != null && (bytes = classPath.findClass(outerType.getClassBinName())) != null) {
+			topLevelName = outerType.getClassBinName();
+			outerType = new DecompilingClass(decompiler, new ClassReader(bytes), ClassReader.SKIP_CODE).getOuterClassType();
+		}
+
+		return topLevelName;
+	}
+
+	/** Декомпилирует гнездо. Каждое гнездо декомпилируется своим {@link Decompiler}-ом,
+	 * поэтому разные гнёзда можно декомпилировать одновременно. */
+	private String decompile(String topLevelName) throws IOException {
+		var decompiler = this.decompiler.fork();
+		var topLevelClass = readClass(decompiler, topLevelName);
+
+		if (topLevelClass == null)
+			throw new IOException("Class is not found: " + topLevelName);
+
+		var nest = readNest(decompiler, topLevelClass);
+
+		Map<IClassArrayType, DecompilingClass> classMap = new LinkedHashMap<>();
+		nest.forEach(clazz -> classMap.put(clazz.getThisType(), clazz));
+
+		var dependencies = readDependencies(decompiler, nest, classMap);
+
+		var unmodifiableClassMap = Collections.unmodifiableMap(classMap);
+		nest.forEach(clazz -> clazz.initNested(unmodifiableClassMap));
+
+		var skeletonMap = new SkeletonIndex<>(dependencies).getSkeletonMap();
+
+		return decompiler.decompileNest(unmodifiableClassMap, skeletonMap, topLevelClass);
+	}
+
+	/**
+	 * Читает все классы гнезда. Вложенные классы ищутся среди классов, на которые ссылаются классы гнезда,
+	 * и имя которых начинается с имени класса верхнего уровня и {@code $}.
+	 * @return классы гнезда, отсортированные по имени, как в архивах.
+	 */
+	private List<DecompilingClass> readNest(Decompiler decompiler, DecompilingClass topLevelClass) throws IOException {
+		var prefix = topLevelClass.getThisType().getClassBinName() + "$";
+
+		Map<String, DecompilingClass> nest = new HashMap<>();
+		nest.put(topLevelClass.getThisType().getClassBinName(), topLevelClass);
+
+		Deque<DecompilingClass> queue = new ArrayDeque<>(nest.values());
+		Set<String> visited = new HashSet<>(nest.keySet());
+
+		while (!queue.isEmpty()) {
+			for (var name : queue.remove().getReferencedClassNames()) {
+				if (name.startsWith(prefix) && visited.add(name)) {
+					var clazz = readClass(decompiler, name);
+
+					if (clazz != null && clazz.getOuterClassType() != null) {
+						nest.put(name, clazz);
+						queue.add(clazz);
+					}
+				}
+			}
+		}
+
+		// Классы, внешний класс которых не входит в гнездо (например, класс с $ в имени), не являются вложенными
+		return nest.values().stream()
+				.filter(clazz -> clazz == topLevelClass || isNested(clazz, nest))
+				.sorted(Comparator.comparing(clazz -> clazz.getThisType().getClassBinName()))
+				.toList();
+	}
+
+	private static boolean isNested(DecompilingClass clazz, Map<String, DecompilingClass> nest) {
+		var outerType = clazz.getOuterClassType();
+		return outerType != null && nest.containsKey(outerType.getClassBinName());
+	}
+
+	/**
+	 * Читает скелеты классов, на которые ссылается гнездо, а также всех их суперклассов и интерфейсов.
+	 * Суперклассы нужны как скелеты, а не как библиотечные классы, так как
+	 * {@link LibraryClass} хранит только публичные методы, а для поиска переопределённых методов нужны все.
+	 */
+	private List<SkeletonIndex.Entry<String>> readDependencies(
+			Decompiler decompiler, List<DecompilingClass> nest, Map<IClassArrayType, DecompilingClass> classMap
+	) throws IOException {
+
+		Deque<String> queue = new ArrayDeque<>(new TreeSet<>(
+				nest.stream().flatMap(clazz -> clazz.getReferencedClassNames().stream()).toList()));
+
+		nest.forEach(clazz -> queue.addAll(superNames(clazz)));
+
+		Set<String> visited = new HashSet<>();
+		List<SkeletonIndex.Entry<String>> dependencies = new ArrayList<>();
+
+		while (!queue.isEmpty()) {
+			var name = queue.remove();
+
+			if (!visited.add(name) || classMap.containsKey(ClassType.valueOf(name)))
+				continue;
+
+			var bytes = classPath.findClass(name);
+
+			if (bytes != null) {
+				var skeleton = new DecompilingClass(decompiler, new ClassReader(bytes), ClassReader.SKIP_CODE);
+				dependencies.add(new SkeletonIndex.Entry<>(name, skeleton, bytes));
+				queue.addAll(superNames(skeleton));
+			}
+		}
+
+		return dependencies;
+	}
+
+	private static List<String> superNames(DecompilingClass clazz) {
+		return Stream.concat(Stream.of(clazz.getSuperType()), clazz.getInterfaces().stream())
+				.map(type -> type.base().getClassBinName())
+				.toList();
+	}
+
+	private @Nullable DecompilingClass readClass(Decompiler decompiler, String classBinName) throws IOException {
+		var bytes = classPath.findClass(classBinName);
+		return bytes == null ? null : new DecompilingClass(decompiler, new ClassReader(bytes));
+	}
+}
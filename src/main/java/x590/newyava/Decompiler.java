@@ -1,34 +1,52 @@
 package x590.newyava;
 
+import com.google.common.cache.Cache;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.function.FailableConsumer;
 import org.apache.commons.lang3.function.FailableFunction;
+import org.apache.commons.lang3.function.FailableRunnable;
+import org.apache.commons.lang3.function.FailableSupplier;
 import org.apache.commons.lang3.stream.Streams;
 import org.apache.commons.lang3.time.StopWatch;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.objectweb.asm.ClassReader;
+import x590.newyava.DecompilationScheduler.Stage;
+import x590.newyava.cache.DecompilationCache;
 import x590.newyava.io.ConsoleWriterFactory;
 import x590.newyava.io.DecompilationWriter;
+import x590.newyava.io.StringBuilderWriter;
 import x590.newyava.io.WriterFactory;
+import x590.newyava.type.ClassType;
 import x590.newyava.type.IClassArrayType;
+import x590.newyava.type.IClassType;
 
 import java.io.*;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.jar.JarFile;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Главный класс, выполняющий декомпиляцию.
  * Хранит {@link Config} и карту всех {@link DecompilingClass}.
  */
-@RequiredArgsConstructor
 public class Decompiler {
 
 	@Getter
@@ -36,13 +54,54 @@ public class Decompiler {
 
 	private final WriterFactory writerFactory;
 
-	public Decompiler(Config config) {
-		this(config, ConsoleWriterFactory.INSTANCE);
+	private @Nullable @Unmodifiable Map<IClassArrayType, DecompilingClass> classMap;
+
+	/** Скелеты всех классов в потоковом режиме. Используются для поиска классов, которых нет в {@link #classMap}. */
+	private @Nullable @Unmodifiable Map<IClassArrayType, DecompilingClass> skeletonMap;
+
+	/** Кеш библиотечных классов. Потокобезопасен, так как используется из параллельных стадий.
+	 * Размер ограничен {@link Config#getLibraryCacheSize()}. */
+	private final Cache<ClassType, Optional<LibraryClass>> libraryClassCache;
+
+	/** Библиотечные классы, у всех предков которых уже инициализированы суперклассы и интерфейсы.
+	 * Класс попадает сюда только после загрузки всех предков. Пока класса здесь нет,
+	 * {@link #findLibraryClass} сначала загружает его предков, даже если сам класс уже в кеше. */
+	private final Set<ClassType> resolvedLibraryClasses;
+
+	/** Количество методов, декомпиляция которых прервана из-за превышения {@link TimeBudget}. */
+	private final LongAdder timeouts;
+
+	/** Количество окон в текущем запуске. */
+	private int windowCount;
+
+	/** Классы верхнего уровня текущего запуска, текст которых записан не полностью или содержит
+	 * методы, которые не удалось декомпилировать. Такие классы не сохраняются в {@link Config#getCache()}. */
+	private final Set<String> incompleteClasses = ConcurrentHashMap.newKeySet();
+
+	public Decompiler(Config config, WriterFactory writerFactory) {
+		this.config = config;
+		this.writerFactory = writerFactory;
+		this.libraryClassCache = CacheBuilder.newBuilder()
+				.maximumSize(config.getLibraryCacheSize())
+				.concurrencyLevel(config.getThreads())
+				.recordStats()
+				.build();
+		this.resolvedLibraryClasses = ConcurrentHashMap.newKeySet();
+		this.timeouts = new LongAdder();
 	}
 
-	private @Nullable @Unmodifiable Map<IClassArrayType, DecompilingClass> classMap;
+	/** Создаёт декомпилятор с теми же настройками, кешем библиотечных классов и счётчиком превышений бюджета. */
+	private Decompiler(Decompiler parent) {
+		this.config = parent.config;
+		this.writerFactory = parent.writerFactory;
+		this.libraryClassCache = parent.libraryClassCache;
+		this.resolvedLibraryClasses = parent.resolvedLibraryClasses;
+		this.timeouts = parent.timeouts;
+	}
 
-	private final Map<IClassArrayType, Optional<ReflectClass>> reflectClassMap = new HashMap<>();
+	public Decompiler(Config config) {
+		this(config, ConsoleWriterFactory.INSTANCE);
+	}
 
 	/**
 	 * Декомпилирует все классы с переданными именами.
@@ -71,6 +130,37 @@ public class Decompiler {
 	}
 
 
+	/**
+	 * Декомпилирует все классы из jar- или zip-архива.
+	 * Если архив является multi-release jar, то для каждого класса берётся версия,
+	 * соответствующая текущей версии JVM (см. {@link JarFile#runtimeVersion()}).
+	 * @param archive путь к архиву.
+	 */
+	public void run(Path archive) {
+		try (var jarFile = new JarFile(archive.toFile(), false, ZipFile.OPEN_READ, JarFile.runtimeVersion())) {
+			run(jarFile);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Декомпилирует все классы из архива. Все записи, которые не являются class-файлами, пропускаются.
+	 * Если передан {@link JarFile}, то записи из {@code META-INF/versions/N/} заменяют
+	 * основные записи в соответствии с версией, с которой был открыт архив.
+	 * Архив не закрывается после декомпиляции.
+	 * @param zipFile архив с классами.
+	 */
+	public void run(ZipFile zipFile) {
+		Stream<? extends ZipEntry> entries = zipFile instanceof JarFile jarFile && jarFile.isMultiRelease() ?
+				jarFile.versionedStream() :
+				zipFile.stream().filter(entry -> !entry.getName().startsWith("META-INF/versions/"));
+
+		run(entries.filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".class")),
+				zipFile::getInputStream);
+	}
+
+
 	/**
 	 * Декомпилирует поток объектов.
 	 * @param stream поток объектов.
@@ -92,121 +182,615 @@ public class Decompiler {
 	        FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter
 	) throws IOException {
 
+		withService(service -> {
+			if (config.streaming() || config.getCache() != null) {
+				runStreaming(stream.toList(), resourceGetter, service);
+			} else {
+				runAll(stream, resourceGetter, service);
+			}
+		});
+	}
+
+	/** Создаёт пул потоков для {@code action} и передаёт сводку запуска в {@link DecompilationListener}. */
+	private void withService(FailableConsumer<ExecutorService, IOException> action) throws IOException {
 		StopWatch totalWatch = StopWatch.createStarted();
+		windowCount = 0;
+		incompleteClasses.clear();
+
+		ExecutorService service = Executors.newFixedThreadPool(config.getThreads());
+
+		try {
+			action.accept(service);
+		} finally {
+			service.shutdown();
+		}
+
+		totalWatch.stop();
+
+		config.getListener().runFinished(new DecompilationListener.RunSummary(
+				totalWatch.getNanoTime(),
+				getLibraryCacheStats(),
+				config.getCache() == null ? null : config.getCache().getStats(),
+				getTimeoutCount(),
+				windowCount
+		));
+	}
+
+	/** Читает все классы в память, затем декомпилирует и записывает их. */
+	private <T> void runAll(
+			Stream<? extends T> stream,
+			FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter,
+			ExecutorService service
+	) throws IOException {
+
 		StopWatch watch = StopWatch.createStarted();
 
 		// Копируем в переменную, чтобы не было предупреждений, связанных с null
-		var classMap = this.classMap = Streams.failableStream(stream)
-				.map(value -> {
-					try (var in = resourceGetter.apply(value)) {
-						return new DecompilingClass(this, new ClassReader(in));
-					} catch (Throwable throwable) {
-						System.err.println("Exception while creating class " + value);
-						throw throwable;
-					}
-				}).collect(Collectors.toMap(DecompilingClass::getThisType, clazz -> clazz));
+		var classMap = this.classMap = readClasses(stream, resourceGetter, service);
 
 		watch.stop();
-		System.out.println("Reading: " + watch);
+		config.getListener().phaseFinished("Reading", watch.getNanoTime());
 
+		executeStage(classMap.values(), clazz -> clazz.initNested(classMap), "initNested");
 
-		Collection<DecompilingClass> classes = classMap.values();
+		var topLevelClasses = classMap.values().stream().filter(DecompilingClass::isTopLevel).toList();
+
+		try {
+			decompileAndWrite(classMap, topLevelClasses, writerFactory, service, true);
+		} finally {
+			writerFactory.close();
+		}
+	}
 
-		executeStage(classes, clazz -> clazz.initNested(classMap), "initNested");
+	/**
+	 * Потоковый режим (см. {@link Config#getStreamingMemoryBudget()}), а также режим с {@link Config#getCache()}.
+	 * Если задан кеш, то гнёзда, найденные в кеше, записываются сразу после построения индекса,
+	 * а в окна попадают только остальные гнёзда. Если потоковый режим не включён, то окно одно.
+	 */
+	private <T> void runStreaming(
+			@Unmodifiable List<? extends T> sources,
+			FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter,
+			ExecutorService service
+	) throws IOException {
 
-		ExecutorService service = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-		executeStageParallel(classes, DecompilingClass::decompile, "decompile", service);
-		service.shutdown();
+		var cache = config.getCache();
 
-//		executeStage(classes, DecompilingClass::decompile, "decompile");
+		try {
+			FailableSupplier<SkeletonIndex<T>, IOException> indexer =
+					() -> new SkeletonIndex<>(readSkeletons(sources, resourceGetter, service));
 
-		executeStage(classes, DecompilingClass::afterDecompilation, "afterDecompilation");
-		executeStage(classes, DecompilingClass::processVariables, "processVariables");
+			if (cache == null) {
+				runIndexed(indexer, resourceGetter, service, index -> nestIndex -> true, writerFactory);
+				return;
+			}
 
-		executeStage(classes, DecompilingClass::addImports, "addImports");
-		executeStage(classes, DecompilingClass::computeImports, "computeImports");
+			// Заполняется после построения индекса
+			Map<String, String> keys = new HashMap<>();
 
+			runIndexed(indexer, resourceGetter, service, index -> {
+				keys.putAll(writeCachedClasses(index, cache));
+				return nestIndex -> keys.containsKey(index.topLevelClass(nestIndex).getThisType().getName());
+			}, cache.caching(writerFactory, className ->
+					incompleteClasses.contains(className) ? null : keys.get(className)));
+
+		} finally {
+			writerFactory.close();
+		}
+	}
+
+	/**
+	 * Читает скелеты источников {@code changed} и заменяет или добавляет их в {@code entries}.
+	 * Затем строит индекс из всех скелетов {@code entries}, декомпилирует и записывает гнёзда,
+	 * выбранные {@code selector}-ом. {@link WriterFactory} не закрывается, поэтому метод можно вызывать повторно.
+	 * @param entries скелеты всех источников, сохранённые с прошлого вызова. Изменяется.
+	 * @param changedNests классы верхнего уровня гнёзд, из которых удалены скелеты. Изменяется:
+	 *                     дополняется гнёздами прочитанных скелетов (см. {@link SkeletonIndex#SkeletonIndex(List, Set)}).
+	 * @see IncrementalDecompiler
+	 */
+	<T> void runIncremental(
+			Map<T, SkeletonIndex.Entry<T>> entries,
+			@Unmodifiable List<? extends T> changed,
+			Set<ClassType> changedNests,
+			FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter,
+			FailableFunction<SkeletonIndex<T>, IntPredicate, IOException> selector
+	) throws IOException {
+
+		withService(service -> runIndexed(() -> {
+			for (var entry : readSkeletons(changed, resourceGetter, service)) {
+				var old = entries.put(entry.source(), entry);
+
+				if (old != null) {
+					changedNests.add(old.skeleton().getThisType().getTopLevelClass());
+				}
+
+				changedNests.add(entry.skeleton().getThisType().getTopLevelClass());
+			}
+
+			return new SkeletonIndex<>(List.copyOf(entries.values()), changedNests);
+
+		}, resourceGetter, service, selector, writerFactory));
+	}
+
+	/** Читает скелеты классов, т.е. классы без кода методов. */
+	private <T> @Unmodifiable List<SkeletonIndex.Entry<T>> readSkeletons(
+			@Unmodifiable List<? extends T> sources,
+			FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter,
+			ExecutorService service
+	) throws IOException {
+
+		return readAll(sources.stream(), source -> {
+			try (var in = resourceGetter.apply(source)) {
+				byte[] bytes = in.readAllBytes();
+				var skeleton = new DecompilingClass(this, new ClassReader(bytes), ClassReader.SKIP_CODE);
+				return new SkeletonIndex.Entry<T>(source, skeleton, bytes);
+
+			} catch (Throwable throwable) {
+				config.getListener().classReadFailed(source, throwable);
+				throw throwable;
+			}
+		}, service);
+	}
+
+	/**
+	 * Сначала строит {@link SkeletonIndex} с помощью {@code indexer}, затем по очереди читает,
+	 * декомпилирует и записывает окна. Классы вне текущего окна ищутся среди скелетов.
+	 * Для этого {@code resourceGetter} вызывается для каждого источника повторно.
+	 * @param selector по индексу возвращает предикат, определяющий, какие гнёзда декомпилировать и записывать.
+	 * @param windowWriterFactory фабрика, в которую записываются декомпилированные классы. Не закрывается.
+	 */
+	private <T> void runIndexed(
+			FailableSupplier<SkeletonIndex<T>, IOException> indexer,
+			FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter,
+			ExecutorService service,
+			FailableFunction<SkeletonIndex<T>, IntPredicate, IOException> selector,
+			WriterFactory windowWriterFactory
+	) throws IOException {
+
+		StopWatch watch = StopWatch.createStarted();
+
+		var index = indexer.get();
+
+		this.skeletonMap = index.getSkeletonMap();
+
+		watch.stop();
+		config.getListener().phaseFinished("Indexing", watch.getNanoTime());
 
 		watch.reset();
 		watch.start();
 
-		try (var writer = new DecompilationWriter(writerFactory, config)) {
-			Streams.failableStream(classes.stream())
-					.filter(DecompilingClass::isTopLevel)
-					.forEach(clazz -> {
-						try {
-							writer.openWriter(clazz.getThisType().getName());
-							clazz.write(writer);
-							writer.closeWriter();
-
-						} catch (Throwable throwable) {
-							writer.flush();
-							System.err.println("Exception while writing class " + clazz.getThisType());
-							throw throwable;
+		try {
+			long budget = config.streaming() ? config.getStreamingMemoryBudget() : Long.MAX_VALUE;
+			var windows = index.windows(budget, selector.apply(index));
+
+			for (var window : windows) {
+				var targets = readClasses(window.targets().stream(), resourceGetter, service);
+
+				Map<IClassArrayType, DecompilingClass> classMap = new HashMap<>(targets);
+				classMap.putAll(readClasses(window.context().stream(), resourceGetter, service));
+
+				this.classMap = Collections.unmodifiableMap(classMap);
+
+				index.initNested(this.classMap);
+
+				var topLevelClasses = targets.values().stream().filter(DecompilingClass::isTopLevel).toList();
+				decompileAndWrite(classMap, topLevelClasses, windowWriterFactory, service, false);
+			}
+
+			watch.stop();
+			windowCount += windows.size();
+			config.getListener().phaseFinished("Decompilation and writing", watch.getNanoTime());
+
+		} finally {
+			this.classMap = null;
+			this.skeletonMap = null;
+		}
+	}
+
+	/**
+	 * Записывает классы верхнего уровня, найденные в кеше, в исходном порядке.
+	 * @return ключи кеша для остальных классов верхнего уровня по их именам.
+	 */
+	private Map<String, String> writeCachedClasses(SkeletonIndex<?> index, DecompilationCache cache) throws IOException {
+		var fingerprint = config.outputFingerprint();
+		Map<String, String> keys = new HashMap<>();
+
+		for (int i = 0, s = index.nestCount(); i < s; i++) {
+			var topLevelClass = index.topLevelClass(i);
+
+			// Вложенные классы без внешнего класса не записываются, поэтому их незачем искать в кеше
+			if (!topLevelClass.isTopLevel())
+				continue;
+
+			var className = topLevelClass.getThisType().getName();
+			var key = index.nestKey(i, fingerprint);
+			var content = cache.get(key);
+
+			if (content == null) {
+				keys.put(className, key);
+				continue;
+			}
+
+			var out = writerFactory.getWriter(className);
+			out.write(content);
+			writerFactory.closeWriter(out);
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Выполняет все стадии декомпиляции для классов из {@code classMap} и записывает {@code topLevelClasses}
+	 * в {@code writerFactory}. {@code writerFactory} не закрывается.
+	 * @param printTimes если {@code true}, то передаёт время выполнения стадий и записи в {@link DecompilationListener}.
+	 */
+	private void decompileAndWrite(
+			@Unmodifiable Map<IClassArrayType, DecompilingClass> classMap,
+			@Unmodifiable List<DecompilingClass> topLevelClasses,
+			WriterFactory writerFactory, ExecutorService service, boolean printTimes
+	) throws IOException {
+
+		StopWatch watch = StopWatch.createStarted();
+
+		var scheduler = scheduleStages(classMap, service);
+
+		if (config.parallelWriting()) {
+			// Класс записывается, как только для него и его зависимостей выполнены все стадии
+			writeClassesParallel(topLevelClasses, writerFactory, scheduler,
+					clazz -> scheduler.ready(clazz).thenApplyAsync(ignored -> renderClass(clazz), service));
+
+			scheduler.join();
+			watch.stop();
+
+			if (printTimes) {
+				scheduler.reportStageTimes();
+				config.getListener().phaseFinished("Decompilation and writing", watch.getNanoTime());
+			}
+
+		} else {
+			scheduler.join();
+			watch.stop();
+
+			if (printTimes) {
+				scheduler.reportStageTimes();
+				config.getListener().phaseFinished("Decompilation", watch.getNanoTime());
+			}
+
+			watch.reset();
+			watch.start();
+
+			writeClasses(topLevelClasses, writerFactory, scheduler);
+
+			watch.stop();
+
+			if (printTimes) {
+				config.getListener().phaseFinished("Writing", watch.getNanoTime());
+			}
+		}
+	}
+
+	/** Планирует все стадии декомпиляции для классов из {@code classMap}. */
+	private DecompilationScheduler scheduleStages(
+			@Unmodifiable Map<IClassArrayType, DecompilingClass> classMap,
+			ExecutorService service
+	) {
+		var scheduler = new DecompilationScheduler(classMap, service, config.getListener());
+		scheduler.schedule(new Stage("decompile", clazz -> {
+			resolveHierarchies(clazz);
+			clazz.decompile();
+		}, true));
+		scheduler.schedule(new Stage("afterDecompilation", DecompilingClass::afterDecompilation, false));
+		scheduler.schedule(new Stage("processVariables", DecompilingClass::processVariables, false));
+		scheduler.schedule(new Stage("addImports", DecompilingClass::addImports, false));
+		scheduler.schedule(new Stage("computeImports", DecompilingClass::computeImports, false));
+		return scheduler;
+	}
+
+	/**
+	 * Находит предков всех классов, на которые ссылается {@code clazz}, до декомпиляции его методов.
+	 * Иначе выведенные типы переменных зависели бы от того, иерархии каких классов
+	 * уже были найдены при декомпиляции других классов, в том числе в других потоках.
+	 */
+	private void resolveHierarchies(DecompilingClass clazz) {
+		Set<ClassType> visited = new HashSet<>();
+		Deque<ClassType> worklist = new ArrayDeque<>();
+
+		clazz.getTypeClassNames().forEach(name -> worklist.add(ClassType.valueOf(name)));
+
+		while (!worklist.isEmpty()) {
+			var type = worklist.poll();
+
+			if (!visited.add(type))
+				continue;
+
+			findIClass(type).ifPresent(found -> {
+				if (found.getSuperType() != null) {
+					worklist.add(found.getSuperType().base());
+				}
+
+				found.getInterfaces().forEach(interf -> worklist.add(interf.base()));
+			});
+		}
+	}
+
+	/**
+	 * Декомпилирует одно гнездо в текущем потоке и записывает класс верхнего уровня в строку.
+	 * Классы вне гнезда ищутся среди {@code skeletonMap} и библиотечных классов.
+	 * Вызовы не должны выполняться одновременно. Для одновременной декомпиляции гнёзд
+	 * каждое гнездо читается и декомпилируется своим декомпилятором, созданным {@link #fork()}.
+	 * @param classMap все классы гнезда. Вложенные классы должны быть уже связаны.
+	 * @see DecompilationService
+	 */
+	String decompileNest(
+			@Unmodifiable Map<IClassArrayType, DecompilingClass> classMap,
+			@Unmodifiable Map<IClassArrayType, DecompilingClass> skeletonMap,
+			DecompilingClass topLevelClass
+	) {
+		this.classMap = classMap;
+		this.skeletonMap = skeletonMap;
+
+		try {
+			scheduleStages(classMap, MoreExecutors.newDirectExecutorService()).join();
+
+			var rendered = renderClass(topLevelClass);
+
+			if (rendered.exception() != null) {
+				config.getListener().classFailed(topLevelClass.getThisType(), "write", rendered.exception());
+				Throwables.throwIfUnchecked(rendered.exception());
+				throw new RuntimeException(rendered.exception());
+			}
+
+			return rendered.content().toString();
+
+		} finally {
+			this.classMap = null;
+			this.skeletonMap = null;
+		}
+	}
+
+	/**
+	 * @return новый декомпилятор с теми же настройками, который использует общий с данным декомпилятором
+	 * кеш библиотечных классов и счётчик превышений бюджета, но свои карты классов.
+	 * @see DecompilationService
+	 */
+	Decompiler fork() {
+		return new Decompiler(this);
+	}
+
+	/** Записывает классы по порядку. Код записанных классов освобождается с помощью {@code scheduler}. */
+	private void writeClasses(List<DecompilingClass> classes, WriterFactory writerFactory,
+	                          DecompilationScheduler scheduler) throws IOException {
+		var writer = new DecompilationWriter(writerFactory, config);
+		var listener = config.getListener();
+
+		Streams.failableStream(classes.stream())
+				.forEach(clazz -> {
+					var event = new ClassWriteEvent();
+					event.begin();
+
+					var className = clazz.getThisType().getName();
+
+					try {
+						writer.openWriter(className);
+						clazz.write(writer);
+
+						if (clazz.isCodeFailed()) {
+							incompleteClasses.add(className);
 						}
-					});
+
+						listener.classWritten(clazz.getThisType(), writer.getWrittenLength());
+						writer.closeWriter();
+						scheduler.written(clazz);
+						commitWriteEvent(event, clazz, writer.getWrittenLength(), null);
+
+					} catch (Throwable throwable) {
+						incompleteClasses.add(className);
+						closeFailedWriter(writer::closeWriter, throwable);
+						listener.classFailed(clazz.getThisType(), "write", throwable);
+						commitWriteEvent(event, clazz, writer.getWrittenLength(), throwable);
+						throw throwable;
+					}
+				});
+	}
+
+	/** Текст класса, записанный в память. Если при записи возникло исключение,
+	 * то {@code content} содержит текст, записанный до исключения. */
+	private record RenderedClass(DecompilingClass clazz, CharSequence content, @Nullable Throwable exception) {}
+
+	/**
+	 * Записывает каждый класс в отдельный буфер с помощью {@code renderer}, а сами буферы
+	 * передаёт в {@code writerFactory} в текущем потоке в исходном порядке классов.
+	 * Таким образом, запись в {@link WriterFactory} выполняется из одного потока, параллельно с
+	 * записью следующих классов в память. Количество классов, записанных в память,
+	 * но ещё не переданных в {@link WriterFactory}, ограничено.
+	 * Код записанных классов освобождается с помощью {@code scheduler}.
+	 */
+	private void writeClassesParallel(List<DecompilingClass> classes, WriterFactory writerFactory,
+	                                  DecompilationScheduler scheduler,
+	                                  Function<DecompilingClass, Future<RenderedClass>> renderer) throws IOException {
+		int window = config.getThreads() * 4;
+		Deque<Future<RenderedClass>> pending = new ArrayDeque<>(window);
+		var iterator = classes.iterator();
+
+		while (iterator.hasNext() || !pending.isEmpty()) {
+			while (iterator.hasNext() && pending.size() < window) {
+				pending.add(renderer.apply(iterator.next()));
+			}
+
+			var rendered = getRenderedClass(pending.remove());
+			var clazz = rendered.clazz();
+			var out = writerFactory.getWriter(clazz.getThisType().getName());
+
+			out.append(rendered.content());
+
+			if (rendered.exception() != null) {
+				incompleteClasses.add(clazz.getThisType().getName());
+				closeFailedWriter(() -> writerFactory.closeWriter(out), rendered.exception());
+				pending.forEach(future -> future.cancel(false));
+				config.getListener().classFailed(clazz.getThisType(), "write", rendered.exception());
+
+				switch (rendered.exception()) {
+					case IOException ioException -> throw ioException;
+					case RuntimeException runtimeException -> throw runtimeException;
+					case Error error -> throw error;
+					default -> throw new RuntimeException(rendered.exception());
+				}
+			}
+
+			if (clazz.isCodeFailed()) {
+				incompleteClasses.add(clazz.getThisType().getName());
+			}
+
+			config.getListener().classWritten(clazz.getThisType(), rendered.content().length());
+			writerFactory.closeWriter(out);
+			scheduler.written(clazz);
 		}
+	}
 
-		watch.stop();
-		totalWatch.stop();
+	/**
+	 * Закрывает {@link Writer} класса, запись которого прервана исключением,
+	 * чтобы текст, записанный до исключения, не потерялся.
+	 * Исключение при закрытии добавляется к {@code throwable} как подавленное.
+	 */
+	private static void closeFailedWriter(FailableRunnable<IOException> closer, Throwable throwable) {
+		try {
+			closer.run();
+		} catch (Throwable closeException) {
+			throwable.addSuppressed(closeException);
+		}
+	}
+
+	private RenderedClass renderClass(DecompilingClass clazz) {
+		var event = new ClassWriteEvent();
+		event.begin();
+
+		var buffer = new StringBuilderWriter();
+
+		try {
+			clazz.write(new DecompilationWriter(buffer, config));
+			commitWriteEvent(event, clazz, buffer.getContent().length(), null);
+			return new RenderedClass(clazz, buffer.getContent(), null);
 
-		System.out.println("Writing: " + watch);
-		System.out.println("Total: " + totalWatch);
+		} catch (Throwable throwable) {
+			commitWriteEvent(event, clazz, buffer.getContent().length(), throwable);
+			return new RenderedClass(clazz, buffer.getContent(), throwable);
+		}
 	}
 
-	private void executeStage(Collection<DecompilingClass> classes, Consumer<DecompilingClass> method, String stage) {
-		var watch = StopWatch.createStarted();
+	private static void commitWriteEvent(ClassWriteEvent event, DecompilingClass clazz,
+	                                     long length, @Nullable Throwable exception) {
+		event.end();
 
-		classes.forEach(decompilingClass -> {
-			try {
-				method.accept(decompilingClass);
+		if (event.shouldCommit()) {
+			event.className = clazz.getThisType().getName();
+			event.length = length;
+			event.outcome = exception == null ? "success" : "failure";
+			event.commit();
+		}
+	}
+
+	private static RenderedClass getRenderedClass(Future<RenderedClass> future) {
+		try {
+			return future.get();
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(ex);
+
+		} catch (ExecutionException ex) {
+			// renderClass не бросает исключений, поэтому здесь может быть только исключение из стадии декомпиляции
+			switch (ex.getCause()) {
+				case RuntimeException runtimeException -> throw runtimeException;
+				case Error error -> throw error;
+				default -> throw new RuntimeException(ex.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Читает все классы из потока. Если {@link Config#parallelReading()} равно {@code true},
+	 * то классы читаются параллельно с помощью {@code service}.
+	 * @return карту прочитанных классов. Её содержимое не зависит от порядка завершения задач.
+	 */
+	private <T> Map<IClassArrayType, DecompilingClass> readClasses(
+			Stream<? extends T> stream,
+	        FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter,
+	        ExecutorService service
+	) throws IOException {
+
+		FailableFunction<T, DecompilingClass, IOException> reader = value -> {
+			try (var in = resourceGetter.apply(value)) {
+				return new DecompilingClass(this, new ClassReader(in.readAllBytes()));
 			} catch (Throwable throwable) {
-				System.err.printf(
-						"Exception on stage `%s` while processing class %s\n",
-						stage, decompilingClass
-				);
+				config.getListener().classReadFailed(value, throwable);
 				throw throwable;
 			}
-		});
+		};
 
-		watch.stop();
-		System.out.printf("Time for stage %20s: %s\n", stage, watch);
+		return readAll(stream, reader, service).stream()
+				.collect(Collectors.toMap(DecompilingClass::getThisType, clazz -> clazz));
 	}
 
-	private void executeStageParallel(Collection<DecompilingClass> classes, Consumer<DecompilingClass> method,
-	                                  String stage, ExecutorService service) {
+	/**
+	 * Применяет {@code reader} к каждому объекту потока. Если {@link Config#parallelReading()} равно {@code true},
+	 * то объекты обрабатываются параллельно с помощью {@code service}.
+	 * @return список результатов в порядке исходного потока.
+	 */
+	private <T, R> @Unmodifiable List<R> readAll(
+			Stream<? extends T> stream,
+			FailableFunction<T, R, IOException> reader,
+			ExecutorService service
+	) throws IOException {
 
-		var watch = StopWatch.createStarted();
+		if (!config.parallelReading()) {
+			return Streams.failableStream(stream).map(reader::apply).collect(Collectors.toUnmodifiableList());
+		}
 
-		List<Future<?>> futures = new ArrayList<>();
-
-		for (var decompilingClass : classes) {
-			futures.add(service.submit(() -> {
-				try {
-					method.accept(decompilingClass);
-				} catch (Throwable throwable) {
-					System.err.printf(
-							"Exception on stage `%s` while processing class %s\n",
-							stage, decompilingClass
-					);
-					throw throwable;
-				}
-			}));
+		List<Future<R>> futures = stream
+				.<Future<R>>map(value -> service.submit(() -> reader.apply(value)))
+				.toList();
+
+		// Собираем результаты в порядке исходного потока
+		return Streams.failableStream(futures.stream()).map(Decompiler::getReadResult)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	/** Ожидает завершения чтения.
+	 * {@link IOException} и непроверяемые исключения пробрасываются без обёртки. */
+	private static <R> R getReadResult(Future<R> future) throws IOException {
+		try {
+			return future.get();
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(ex);
+
+		} catch (ExecutionException ex) {
+			switch (ex.getCause()) {
+				case IOException ioException -> throw ioException;
+				case RuntimeException runtimeException -> throw runtimeException;
+				case Error error -> throw error;
+				default -> throw new RuntimeException(ex.getCause());
+			}
 		}
+	}
 
-		for (Future<?> future : futures) {
+	private void executeStage(Collection<DecompilingClass> classes, Consumer<DecompilingClass> method, String stage) {
+		var watch = StopWatch.createStarted();
+		var listener = config.getListener();
+
+		classes.forEach(decompilingClass -> {
 			try {
-				future.get();
-			} catch (InterruptedException | ExecutionException ex) {
-				throw new RuntimeException(ex);
+				method.accept(decompilingClass);
+			} catch (Throwable throwable) {
+				listener.classFailed(decompilingClass.getThisType(), stage, throwable);
+				throw throwable;
 			}
-		}
+		});
 
 		watch.stop();
-		System.out.printf("Time for stage %20s: %s\n", stage, watch);
+		listener.stageFinished(stage, watch.getNanoTime());
 	}
 
-
 	private static InputStream getResource(Class<?> clazz) throws IOException {
 		String path = clazz.getName().substring(clazz.getPackageName().length() + 1) + ".class";
 
@@ -241,23 +825,102 @@ public class Decompiler {
 			throw new UnsupportedOperationException("Class map has not been initialized yet");
 		}
 
-		return Optional.ofNullable(classMap.get(type));
+		var clazz = classMap.get(type);
+
+		if (clazz == null && skeletonMap != null) {
+			clazz = skeletonMap.get(type);
+		}
+
+		return Optional.ofNullable(clazz);
 	}
 
 	public Optional<? extends IClass> findIClass(@Nullable IClassArrayType type) {
-		return findClass(type).<IClass>map(c -> c).or(() -> findReflectClass(type));
+		return findClass(type).<IClass>map(c -> c).or(() -> findLibraryClass(type));
 	}
 
-	private Optional<ReflectClass> findReflectClass(@Nullable IClassArrayType type) {
-		if (type == null)
+	/**
+	 * Ищет класс в {@link Config#getLibraryClassPath()}. Класс не загружается в JVM, а читается как class-файл.
+	 * Также находит всех предков класса, чтобы у соответствующих {@link ClassType}
+	 * были инициализированы суперклассы и интерфейсы.
+	 * Для массивов всегда возвращает пустой {@link Optional}.
+	 */
+	private Optional<LibraryClass> findLibraryClass(@Nullable IClassArrayType type) {
+		if (!(type instanceof IClassType classType))
 			return Optional.empty();
 
-		return reflectClassMap.computeIfAbsent(type, classArrayType -> {
-			try {
-				return Optional.of(new ReflectClass(Class.forName(classArrayType.getCanonicalBinName())));
-			} catch (ClassNotFoundException ex) {
-				return Optional.empty();
-			}
-		});
+		var baseType = classType.base();
+		var libraryClass = loadLibraryClass(baseType);
+
+		// Класс возвращается только после того, как найдены все его предки. Иначе другой поток
+		// мог бы получить класс из кеша раньше, чем у предков инициализированы суперклассы и интерфейсы.
+		if (libraryClass.isPresent() && !resolvedLibraryClasses.contains(baseType)) {
+			resolveAncestors(baseType, libraryClass.get());
+		}
+
+		return libraryClass;
+	}
+
+	/**
+	 * Загружает всех предков класса без рекурсии, так как кеш не допускает рекурсивной загрузки.
+	 * Если предок загружается другим потоком, то ожидает окончания загрузки.
+	 */
+	private void resolveAncestors(ClassType type, LibraryClass libraryClass) {
+		Set<ClassType> visited = new HashSet<>();
+		Deque<LibraryClass> worklist = new ArrayDeque<>();
+
+		visited.add(type);
+		worklist.add(libraryClass);
+
+		while (!worklist.isEmpty()) {
+			var clazz = worklist.poll();
+
+			Stream.concat(Stream.of(clazz.getSuperType()), clazz.getInterfaces().stream())
+					.map(IClassType::base)
+					.filter(ancestor -> !resolvedLibraryClasses.contains(ancestor) && visited.add(ancestor))
+					.forEach(ancestor -> loadLibraryClass(ancestor).ifPresent(worklist::add));
+		}
+
+		resolvedLibraryClasses.addAll(visited);
+	}
+
+	private Optional<LibraryClass> loadLibraryClass(ClassType type) {
+		try {
+			// Если класс уже в кеше, то поиск не берёт блокировок
+			return libraryClassCache.get(type, () -> readLibraryClass(type));
+
+		} catch (ExecutionException | UncheckedExecutionException ex) {
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new IllegalStateException(ex); // readLibraryClass не бросает проверяемых исключений
+		}
+	}
+
+	/** @return бюджет времени нового класса (см. {@link Config#getClassTimeBudget()}). */
+	TimeBudget createClassBudget() {
+		return config.getClassTimeBudget() == 0 && config.getMethodTimeBudget() == 0 ?
+				TimeBudget.UNLIMITED :
+				TimeBudget.forClass(config.getClassTimeBudget(), timeouts);
+	}
+
+	/** @return количество методов, декомпиляция которых была прервана из-за превышения
+	 * {@link Config#getMethodTimeBudget()} или {@link Config#getClassTimeBudget()}. */
+	public long getTimeoutCount() {
+		return timeouts.sum();
+	}
+
+	/** @return статистику кеша библиотечных классов. */
+	public LibraryCacheStats getLibraryCacheStats() {
+		var stats = libraryClassCache.stats();
+		return new LibraryCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), libraryClassCache.size());
+	}
+
+	private Optional<LibraryClass> readLibraryClass(ClassType type) {
+		try {
+			var bytes = config.getLibraryClassPath().findClass(type.getClassBinName());
+			return bytes == null ? Optional.empty() : Optional.of(new LibraryClass(bytes));
+
+		} catch (IOException | IllegalArgumentException ex) {
+			Log.warn("Cannot read library class %s: %s", type.getClassBinName(), ex);
+			return Optional.empty();
+		}
 	}
 }
@@ -4,6 +4,7 @@ import lombok.Getter;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
 import x590.newyava.annotation.DecompilingAnnotation;
 import x590.newyava.context.ClassContext;
 import x590.newyava.descriptor.FieldDescriptor;
@@ -88,11 +89,37 @@ public class DecompilingClass implements IClass, Writable {
 
 	private final @Nullable ModuleInfo moduleInfo;
 
+	/** Бинарные имена всех классов, на которые ссылается пул констант данного класса.
+	 * Для массивов берётся имя класса элемента. */
+	private final @Unmodifiable Set<String> referencedClassNames;
+
+	/** Бинарные имена классов из {@link #referencedClassNames} и из дескрипторов полей и методов,
+	 * на которые ссылается пул констант. Иерархии этих классов находятся до декомпиляции методов. */
+	private final @Unmodifiable Set<String> typeClassNames;
+
+	/** Бюджет времени декомпиляции всех методов класса. */
+	private final TimeBudget timeBudget;
+
+	/** {@code true}, если код хотя бы одного метода гнезда заменён сообщением об ошибке,
+	 * например, из-за превышения {@link TimeBudget}. Устанавливается только у класса верхнего уровня. */
+	private volatile boolean codeFailed;
+
 	public DecompilingClass(Decompiler decompiler, ClassReader classReader) {
+		this(decompiler, classReader, 0);
+	}
+
+	/**
+	 * @param parsingOptions флаги {@link ClassReader#accept(org.objectweb.asm.ClassVisitor, int)}.
+	 *                       С флагом {@link ClassReader#SKIP_CODE} создаётся скелет класса - методы без кода.
+	 */
+	public DecompilingClass(Decompiler decompiler, ClassReader classReader, int parsingOptions) {
 		this.classContext = new ClassContext(decompiler, this);
+		this.referencedClassNames = readReferencedClassNames(classReader);
+		this.typeClassNames = readTypeClassNames(classReader, referencedClassNames);
+		this.timeBudget = decompiler.createClassBudget();
 
 		var visitor = new DecompileClassVisitor(decompiler);
-		classReader.accept(visitor, 0);
+		classReader.accept(visitor, parsingOptions);
 
 		this.version   = visitor.getVersion();
 		this.modifiers = visitor.getModifiers();
@@ -147,6 +174,79 @@ public class DecompilingClass implements IClass, Writable {
 		classContext.initConstantTables(visibleFields);
 	}
 
+	/** Тег {@code CONSTANT_Class} в пуле констант. */
+	private static final int CONSTANT_CLASS_TAG = 7;
+
+	/** Тег {@code CONSTANT_NameAndType} в пуле констант. */
+	private static final int CONSTANT_NAME_AND_TYPE_TAG = 12;
+
+	/** Тег {@code CONSTANT_MethodType} в пуле констант. */
+	private static final int CONSTANT_METHOD_TYPE_TAG = 16;
+
+	private static @Unmodifiable Set<String> readReferencedClassNames(ClassReader classReader) {
+		Set<String> names = new HashSet<>();
+		char[] buffer = new char[classReader.getMaxStringLength()];
+
+		for (int i = 1, count = classReader.getItemCount(); i < count; i++) {
+			int offset = classReader.getItem(i); // Смещение сразу после тега. Для второй половины long и double равно 0
+
+			if (offset != 0 && classReader.readByte(offset - 1) == CONSTANT_CLASS_TAG) {
+				String name = classReader.readUTF8(offset, buffer);
+
+				if (name.startsWith("[")) {
+					int start = name.lastIndexOf('[') + 1;
+					if (name.charAt(start) != 'L') continue;
+
+					name = name.substring(start + 1, name.length() - 1);
+				}
+
+				names.add(name);
+			}
+		}
+
+		return Collections.unmodifiableSet(names);
+	}
+
+	private static @Unmodifiable Set<String> readTypeClassNames(ClassReader classReader, Set<String> referencedClassNames) {
+		Set<String> names = new HashSet<>(referencedClassNames);
+		char[] buffer = new char[classReader.getMaxStringLength()];
+
+		for (int i = 1, count = classReader.getItemCount(); i < count; i++) {
+			int offset = classReader.getItem(i);
+			if (offset == 0) continue;
+
+			String descriptor = switch (classReader.readByte(offset - 1)) {
+				case CONSTANT_NAME_AND_TYPE_TAG -> classReader.readUTF8(offset + 2, buffer);
+				case CONSTANT_METHOD_TYPE_TAG -> classReader.readUTF8(offset, buffer);
+				default -> null;
+			};
+
+			if (descriptor == null) continue;
+
+			var type = Type.getType(descriptor);
+
+			if (type.getSort() == Type.METHOD) {
+				Arrays.stream(type.getArgumentTypes()).forEach(argType -> addClassName(names, argType));
+				addClassName(names, type.getReturnType());
+			} else {
+				addClassName(names, type);
+			}
+		}
+
+		return Collections.unmodifiableSet(names);
+	}
+
+	/** Добавляет имя класса или имя класса элемента массива. Примитивы пропускаются. */
+	private static void addClassName(Set<String> names, Type type) {
+		if (type.getSort() == Type.ARRAY) {
+			type = type.getElementType();
+		}
+
+		if (type.getSort() == Type.OBJECT) {
+			names.add(type.getInternalName());
+		}
+	}
+
 	private static @Nullable IClassType realSuperType(int modifiers, IClassType formalSuperType) {
 		if ((modifiers & ACC_ENUM) != 0 && formalSuperType.baseEquals(ClassType.ENUM) ||
 			(modifiers & ACC_RECORD) != 0 && formalSuperType.equals(ClassType.RECORD) ||
@@ -190,7 +290,7 @@ public class DecompilingClass implements IClass, Writable {
 
 			if (outerClass != null) {
 				if (!thisType.isEnclosedInMethod()) {
-					outerClass.nestedClasses.add(this);
+					outerClass.addNestedClass(this);
 				}
 
 				this.topLevel = false;
@@ -199,6 +299,50 @@ public class DecompilingClass implements IClass, Writable {
 		}
 	}
 
+	/** Добавляет вложенный класс, сохраняя порядок по имени. Порядок вложенных классов в class-файле
+	 * не совпадает с порядком объявления, поэтому он выбирается так, чтобы не зависеть
+	 * от того, в каком порядке и какими наборами читаются классы. */
+	private void addNestedClass(DecompilingClass nestedClass) {
+		var name = nestedClass.getThisType().getClassBinName();
+		int index = 0;
+
+		while (index < nestedClasses.size() && nestedClasses.get(index).getThisType().getClassBinName().compareTo(name) < 0) {
+			index++;
+		}
+
+		nestedClasses.add(index, nestedClass);
+	}
+
+	/** Сбрасывает связи, установленные {@link #initNested(Map)}, чтобы скелет класса
+	 * можно было заново связать с другим набором классов. */
+	void resetNested() {
+		if (outerClass != null) {
+			outerClass = null;
+			topLevel = true;
+			classContext.resetOuterContext();
+		}
+
+		nestedClasses.clear();
+	}
+
+	/** Отмечает, что код одного из методов этого класса не удалось декомпилировать. */
+	void markCodeFailed() {
+		getTopLevelClass().codeFailed = true;
+	}
+
+	/** @return внешний класс верхнего уровня, в котором объявлен данный класс (в том числе
+	 * анонимный или локальный), или {@code this}, если класс сам является классом верхнего уровня.
+	 * Должен вызываться после {@link #initNested(Map)}. */
+	public DecompilingClass getTopLevelClass() {
+		var clazz = this;
+
+		while (clazz.outerClass != null) {
+			clazz = clazz.outerClass;
+		}
+
+		return clazz;
+	}
+
 
 	/* ----------------------------------------------- decompilation ----------------------------------------------- */
 
@@ -244,6 +388,13 @@ public class DecompilingClass implements IClass, Writable {
 		classContext.computeImports();
 	}
 
+	/** Освобождает код методов и инициализаторы полей. Должен вызываться после записи класса,
+	 * когда они больше не нужны ни этому, ни другим классам. Класс, его поля и методы остаются доступны для поиска. */
+	public void releaseCode() {
+		methods.forEach(DecompilingMethod::releaseCode);
+		fields.forEach(DecompilingField::releaseCode);
+	}
+
 
 	public boolean isMultiline() {
 		return  enumConstants != null ||
@@ -405,20 +556,20 @@ public class DecompilingClass implements IClass, Writable {
 			return enumsWrote;
 
 
-		LinkedList<List<DecompilingField>> groups = new LinkedList<>();
-		groups.add(new ArrayList<>());
-		groups.getLast().add(visibleFields.get(0));
+		List<List<DecompilingField>> groups = new ArrayList<>();
+		List<DecompilingField> lastGroup = new ArrayList<>();
+		lastGroup.add(visibleFields.get(0));
+		groups.add(lastGroup);
 
 		for (int i = 1, s = visibleFields.size(); i < s; i++) {
 			var field = visibleFields.get(i);
-			var lastGroup = groups.getLast();
 
-			if (lastGroup.get(0).canUnite(field)) {
-				lastGroup.add(field);
-			} else {
-				groups.add(new ArrayList<>());
-				groups.getLast().add(field);
+			if (!lastGroup.get(0).canUnite(field)) {
+				lastGroup = new ArrayList<>();
+				groups.add(lastGroup);
 			}
+
+			lastGroup.add(field);
 		}
 
 		out.record(groups, out.getIndent(), (group, index) -> {
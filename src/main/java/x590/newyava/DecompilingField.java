@@ -138,6 +138,15 @@ public class DecompilingField implements IField, ContextualWritable, Importable
 		return initializer != null && initializer != DummyOperation.INSTANCE;
 	}
 
+	/** Освобождает инициализатор поля и связь с внешней переменной. После этого поле нельзя записать. */
+	public void releaseCode() {
+		if (initializer != null) {
+			initializer = DummyOperation.INSTANCE;
+		}
+
+		outerVarRef = null;
+	}
+
 
 	/** Помечает поле как экземпляр внешнего класса. */
 	public void makeOuterInstance() {
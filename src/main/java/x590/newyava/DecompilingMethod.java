@@ -15,12 +15,14 @@ import x590.newyava.decompilation.code.Code;
 import x590.newyava.decompilation.code.CodeGraph;
 import x590.newyava.decompilation.code.CodeProxy;
 import x590.newyava.decompilation.code.InvalidCode;
+import x590.newyava.decompilation.operation.OperationUtils;
 import x590.newyava.decompilation.operation.invoke.InvokeOperation;
 import x590.newyava.decompilation.operation.terminal.ReturnValueOperation;
 import x590.newyava.descriptor.FieldDescriptor;
 import x590.newyava.descriptor.IncompleteMethodDescriptor;
 import x590.newyava.descriptor.MethodDescriptor;
 import x590.newyava.exception.DecompilationException;
+import x590.newyava.exception.DecompilationTimeoutException;
 import x590.newyava.exception.IllegalModifiersException;
 import x590.newyava.io.ContextualWritable;
 import x590.newyava.io.DecompilationWriter;
@@ -48,12 +50,21 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 	/** Видимый дескриптор. Инициализируется после декомпиляции */
 	private @Nullable MethodDescriptor visibleDescriptor;
 
+	/** Видимый дескриптор из сигнатуры метода или {@code null}, если сигнатуры нет. */
+	@Getter(AccessLevel.NONE)
+	private final @Nullable MethodDescriptor signatureDescriptor;
+
 	/** Индекс начала видимых аргументов метода. */
 	private int argsStart = -1;
 
 	/** Индекс конца видимых аргументов метода. */
 	private int argsEnd = -1;
 
+	/** {@code true}, если метод - конструктор скелета (см. {@link SkeletonIndex}),
+	 * первый аргумент которого - внешний экземпляр {@code this}. */
+	@Getter(AccessLevel.NONE)
+	private boolean skeletonOuterInstance;
+
 	private final Signature signature;
 
 
@@ -76,7 +87,7 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 		this.modifiers         = visitor.getModifiers();
 		this.signature         = visitor.getSignature();
 		this.descriptor        = visitor.getDescriptor();
-		this.visibleDescriptor = visitor.getVisibleDescriptor();
+		this.signatureDescriptor = visitor.getVisibleDescriptor();
 		this.annotations       = visitor.getAnnotations();
 		this.exceptions        = visitor.getExceptions();
 		this.defaultValue      = visitor.getDefaultValue();
@@ -104,34 +115,85 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 
 	/** @return {@code true}, если первый аргумент метода - внешний экземпляр {@code this}. */
 	public boolean hasOuterInstance() {
-		return code.isValid() && code.getMethodScope().hasOuterInstance();
+		return code.isValid() ? code.getMethodScope().hasOuterInstance() : skeletonOuterInstance;
 	}
 
 	private MethodDescriptor requireVisibleDescriptor() {
 		return Objects.requireNonNull(visibleDescriptor);
 	}
 
+	/** Бюджет времени декомпиляции метода. Инициализируется при первом обращении к {@link #codeGraph}. */
+	private @Nullable TimeBudget timeBudget;
+
 	/** Если {@link #codeGraph} не {@code null}, то выполняет {@code action}.
 	 * При возникновении исключения оно обрабатывается в {@link #handleException},
-	 * при необходимости оно оборачивается в {@link DecompilationException}. */
-	private void tryCatchOnCodeGraph(Context context, FailableConsumer<CodeGraph, DecompilationException> action) {
+	 * при необходимости оно оборачивается в {@link DecompilationException}.
+	 * Время выполнения {@code action} расходует {@link #timeBudget}, передаётся в {@link DecompilationListener}
+	 * и записывается в {@link MethodStageEvent}.
+	 * @param stage название действия для {@link DecompilationListener#methodStageFinished}. */
+	private void tryCatchOnCodeGraph(Context context, String stage,
+	                                 FailableConsumer<CodeGraph, DecompilationException> action) {
 		if (codeGraph != null) {
+			var graph = codeGraph;
+			var timeBudget = getTimeBudget(context, graph);
+
+			var event = new MethodStageEvent();
+			event.begin();
+
+			long start = System.nanoTime();
+			String outcome = "failure";
+			timeBudget.start();
+
 			try {
-				action.accept(codeGraph);
+				timeBudget.check();
+				action.accept(graph);
+				outcome = "success";
 
 			} catch (DecompilationException ex) {
+				if (ex instanceof DecompilationTimeoutException)
+					outcome = "timeout";
+
 				handleException(ex, context);
 
 			} catch (Exception ex) {
 				handleException(new DecompilationException(ex), context);
+
+			} finally {
+				timeBudget.stop();
+				context.getConfig().getListener().methodStageFinished(descriptor, stage, System.nanoTime() - start);
+
+				event.end();
+
+				if (event.shouldCommit()) {
+					event.className = context.getThisType().getName();
+					event.method = descriptor.toString();
+					event.stage = stage;
+					event.instructions = graph.getSize();
+					event.chunks = graph.getChunkCount();
+					event.outcome = outcome;
+					event.commit();
+				}
 			}
 		}
 	}
 
+	private TimeBudget getTimeBudget(Context context, CodeGraph codeGraph) {
+		if (timeBudget == null) {
+			timeBudget = context.getDecompilingClass().getTimeBudget()
+					.forMethod(context.getConfig().getMethodTimeBudget());
+
+			codeGraph.setTimeBudget(timeBudget);
+		}
+
+		return timeBudget;
+	}
+
 	/** Обрабатывает исключение. Если {@link Config#failOnDecompilationException()} равно {@code true},
-	 * то выбрасывает это исключение ещё раз, иначе записывает в консоль стектрейс. */
+	 * то выбрасывает это исключение ещё раз (кроме {@link DecompilationTimeoutException}),
+	 * иначе заменяет код метода сообщением об ошибке и передаёт исключение в {@link DecompilationListener}. */
 	private void handleException(DecompilationException exception, Context context) {
-		if (context.getConfig().failOnDecompilationException()) {
+		if (context.getConfig().failOnDecompilationException() &&
+			!(exception instanceof DecompilationTimeoutException)) {
 			exception.setMethodDescriptor(descriptor);
 			throw exception;
 		}
@@ -145,23 +207,26 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 
 		codeGraph = null;
 		code.setCode(new InvalidCode(StringUtils.isEmpty(message) ? name : name + ": " + message));
+		context.getDecompilingClass().markCodeFailed();
 
-		exception.setMethodDescriptor(descriptor);
+		context.getConfig().getListener().methodFailed(descriptor, ex, size);
 
-		if (context.getConfig().skipStackTrace()) {
-			System.err.println(name + "|" + message + "|" + size + "|" + descriptor);
-		} else {
-			ex.printStackTrace();
-		}
+		exception.setMethodDescriptor(descriptor);
 	}
 
 	public void decompile(Context context) {
-		tryCatchOnCodeGraph(context, codeGraph -> codeGraph.decompile(descriptor, context));
-		initArgsBounds(context);
+		tryCatchOnCodeGraph(context, "decompile", codeGraph -> codeGraph.decompile(descriptor, context));
 
-		if (visibleDescriptor == null) {
-			visibleDescriptor = descriptor.slice(argsStart, argsEnd);
+		if (codeGraph != null) {
+			context.getConfig().getListener().methodDecompiled(
+					descriptor, codeGraph.getSize(), codeGraph.getChunkCount(), codeGraph.getScopeCount()
+			);
 		}
+
+		initArgsBounds(context);
+
+		// Скелеты декомпилируются заново при каждом связывании вложенных классов (см. SkeletonIndex)
+		visibleDescriptor = signatureDescriptor != null ? signatureDescriptor : descriptor.slice(argsStart, argsEnd);
 	}
 
 	public void afterDecompilation(Context context) {
@@ -169,7 +234,7 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 			annotations.add(new DecompilingAnnotation(ClassType.OVERRIDE));
 		}
 
-		tryCatchOnCodeGraph(context, CodeGraph::afterDecompilation);
+		tryCatchOnCodeGraph(context, "afterDecompilation", CodeGraph::afterDecompilation);
 
 		if ((modifiers & ACC_BRIDGE) != 0 && code.isValid()) {
 			var operations = code.getMethodScope().getOperations();
@@ -217,11 +282,25 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 			argsEnd = methodScope.getArgsEnd();
 		} else {
 
-			argsStart = 0;
+			// У скелета нет кода, поэтому внешний экземпляр определяется по синтетическому полю класса.
+			// Локальные классы не создаются из других гнёзд, поэтому захваченные переменные не учитываются
+			skeletonOuterInstance = code.getCode() == InvalidCode.EMPTY && hasOuterInstanceArg(context);
+
+			argsStart = skeletonOuterInstance ? 1 : 0;
 			argsEnd = descriptor.arguments().size();
 		}
 	}
 
+	private boolean hasOuterInstanceArg(Context context) {
+		var thisType = context.getThisType();
+		var arguments = descriptor.arguments();
+
+		return descriptor.isConstructor() && thisType.isNested() &&
+				!arguments.isEmpty() && arguments.get(0).equals(thisType.getOuter()) &&
+				context.getDecompilingClass().getFields().stream()
+						.anyMatch(field -> OperationUtils.isOuterInstanceField(field, thisType));
+	}
+
 	/** Можно ли оставить метод в классе.
 	 * Должен вызываться только после {@link #decompile(Context)} */
 	public boolean keep(ClassContext context, @Nullable @Unmodifiable List<DecompilingField> recordComponents) {
@@ -292,11 +371,17 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 	}
 
 	public void beforeVariablesInit(Context context) {
-		tryCatchOnCodeGraph(context, CodeGraph::beforeVariablesInit);
+		tryCatchOnCodeGraph(context, "beforeVariablesInit", CodeGraph::beforeVariablesInit);
 	}
 
 	public void initVariables(Context context) {
-		tryCatchOnCodeGraph(context, CodeGraph::initVariables);
+		tryCatchOnCodeGraph(context, "initVariables", CodeGraph::initVariables);
+	}
+
+	/** Освобождает код метода. После этого метод нельзя записать. */
+	public void releaseCode() {
+		codeGraph = null;
+		code.setCode(InvalidCode.EMPTY);
 	}
 
 
@@ -317,7 +402,8 @@ public class DecompilingMethod implements IMethod, ContextualWritable, Importabl
 			possibleNames = List.of(name);
 		}
 
-		tryCatchOnCodeGraph(context, codeGraph -> codeGraph.inferVariableTypesAndNames(possibleNames));
+		tryCatchOnCodeGraph(context, "inferVariableTypesAndNames",
+				codeGraph -> codeGraph.inferVariableTypesAndNames(possibleNames));
 	}
 
 	private boolean isSetter() {
@@ -0,0 +1,150 @@
+package x590.newyava;
+
+import org.apache.commons.lang3.function.FailableFunction;
+import org.jetbrains.annotations.Unmodifiable;
+import x590.newyava.io.WriterFactory;
+import x590.newyava.type.ClassType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Инкрементальная декомпиляция: после первого запуска при каждом обновлении
+ * декомпилирует и записывает заново только затронутые классы верхнего уровня.
+ * <p>
+ * Для каждого гнезда (класса верхнего уровня вместе со вложенными классами) запоминается ключ,
+ * который зависит от содержимого классов гнезда, гнёзд, на классы которых оно ссылается,
+ * и гнёзд всех их супертипов (см. {@link SkeletonIndex#nestKey(int, String)}). Поэтому гнездо затрагивается,
+ * если изменился любой его класс, или класс, от которого зависит встраивание констант, поиск
+ * переопределённых методов (в том числе в непрямых суперклассах) или импорты,
+ * или если такой класс был добавлен или удалён.
+ * <p>
+ * Между обновлениями хранятся скелеты классов (классы без кода методов) и ключи гнёзд.
+ * При обновлении заново читаются скелеты только добавленных и изменённых источников,
+ * а связи между вложенными классами строятся заново только в гнёздах, где скелеты были добавлены,
+ * изменены или удалены, и в гнёздах, классы которых наследуют классы из таких гнёзд.
+ * Библиотечные классы учитываются в ключе только через {@link Config#getLibraryClassPath()}
+ * (см. {@link x590.newyava.classpath.ClassPath#fingerprint() ClassPath.fingerprint()}).
+ * <p>
+ * {@link WriterFactory} не закрывается, пока не вызван {@link #close()}.
+ * Не потокобезопасен.
+ * @param <T> тип источника class-файла. Источники сравниваются через {@link Object#equals(Object)}.
+ */
+public class IncrementalDecompiler<T> implements AutoCloseable {
+
+	private final Decompiler decompiler;
+
+	private final WriterFactory writerFactory;
+
+	private final FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter;
+
+	/** Скелеты всех текущих источников в порядке добавления. */
+	private final Map<T, SkeletonIndex.Entry<T>> entries = new LinkedHashMap<>();
+
+	/** Ключи гнёзд с прошлого обновления по именам классов верхнего уровня. */
+	private Map<String, String> nestKeys = Map.of();
+
+	/**
+	 * @param resourceGetter функция, принимающая источник и возвращающая {@code InputStream} class-файла.
+	 *                       Вызывается при каждом обновлении для добавленных и изменённых источников,
+	 *                       а также для источников гнёзд, которые декомпилируются заново, и их зависимостей.
+	 */
+	public IncrementalDecompiler(
+			Config config, WriterFactory writerFactory,
+			FailableFunction<T, ? extends InputStream, ? extends IOException> resourceGetter
+	) {
+		this.decompiler = new Decompiler(config, writerFactory);
+		this.writerFactory = writerFactory;
+		this.resourceGetter = resourceGetter;
+	}
+
+	/**
+	 * Результат обновления.
+	 * @param written имена классов верхнего уровня, которые были декомпилированы и записаны.
+	 * @param removed имена классов верхнего уровня, которых больше нет.
+	 *                Для них вызван {@link WriterFactory#removeClass(String)}.
+	 */
+	public record Update(@Unmodifiable Set<String> written, @Unmodifiable Set<String> removed) {}
+
+	/**
+	 * Декомпилирует все классы. Равносильно обновлению, в котором все источники добавлены.
+	 */
+	public Update run(Collection<? extends T> sources) {
+		return update(sources, List.of(), List.of());
+	}
+
+	/**
+	 * Применяет изменения и записывает заново затронутые классы верхнего уровня.
+	 * Источник из {@code changed}, которого ещё нет, считается добавленным.
+	 * Если содержимое изменённого источника на самом деле не изменилось, то он ни на что не влияет.
+	 * @param added новые источники.
+	 * @param changed источники, содержимое которых изменилось.
+	 * @param removed удалённые источники.
+	 */
+	public Update update(Collection<? extends T> added, Collection<? extends T> changed, Collection<? extends T> removed) {
+		Set<ClassType> changedNests = new HashSet<>();
+
+		for (var source : removed) {
+			var entry = entries.remove(source);
+
+			if (entry != null) {
+				changedNests.add(entry.skeleton().getThisType().getTopLevelClass());
+			}
+		}
+
+		// Порядок источников сохраняется: новые источники добавляются в конец
+		Set<T> changedSources = new LinkedHashSet<>(added);
+		changedSources.addAll(changed);
+
+		var fingerprint = decompiler.getConfig().outputFingerprint();
+		Map<String, String> newKeys = new HashMap<>();
+		Set<String> written = new LinkedHashSet<>();
+
+		try {
+			decompiler.runIncremental(entries, List.copyOf(changedSources), changedNests, resourceGetter, index -> {
+				for (int i = 0, s = index.nestCount(); i < s; i++) {
+					var topLevelClass = index.topLevelClass(i);
+
+					// Вложенные классы без внешнего класса не записываются
+					if (!topLevelClass.isTopLevel())
+						continue;
+
+					var className = topLevelClass.getThisType().getName();
+					var key = index.nestKey(i, fingerprint);
+					newKeys.put(className, key);
+
+					if (!key.equals(nestKeys.get(className))) {
+						written.add(className);
+					}
+				}
+
+				return nestIndex -> written.contains(index.topLevelClass(nestIndex).getThisType().getName());
+			});
+
+			Set<String> removedClasses = new LinkedHashSet<>(nestKeys.keySet());
+			removedClasses.removeAll(newKeys.keySet());
+
+			for (var className : removedClasses) {
+				writerFactory.removeClass(className);
+			}
+
+			nestKeys = newKeys;
+			return new Update(Collections.unmodifiableSet(written), Collections.unmodifiableSet(removedClasses));
+
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/** Закрывает {@link WriterFactory}. */
+	@Override
+	public void close() {
+		try {
+			writerFactory.close();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package x590.newyava;
+
+/**
+ * Статистика кеша библиотечных классов.
+ * @param hits количество запросов, для которых класс (или его отсутствие) уже был в кеше.
+ * @param misses количество запросов, для которых класс пришлось искать в пути к классам.
+ * @param evictions количество классов, вытесненных из кеша.
+ * @param size текущее количество записей в кеше.
+ */
+public record LibraryCacheStats(long hits, long misses, long evictions, long size) {
+	@Override
+	public String toString() {
+		return String.format("hits: %d, misses: %d, evictions: %d, size: %d", hits, misses, evictions, size);
+	}
+}
@@ -0,0 +1,108 @@
+package x590.newyava;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.objectweb.asm.*;
+import x590.newyava.descriptor.FieldDescriptor;
+import x590.newyava.descriptor.MethodDescriptor;
+import x590.newyava.type.ClassType;
+import x590.newyava.type.IClassType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Библиотечный класс, прочитанный из class-файла без загрузки в JVM.
+ * Код методов и отладочная информация пропускаются.
+ * Как и рефлексия, хранит только публичные поля и методы.
+ */
+@Getter
+public class LibraryClass implements IClass {
+	private int modifiers;
+
+	private ClassType thisType, superType;
+	private @Unmodifiable List<IClassType> interfaces;
+
+	private final Map<FieldDescriptor, LibraryField> fields = new HashMap<>();
+	private final Map<MethodDescriptor, LibraryMethod> methods = new HashMap<>();
+
+	/**
+	 * @param bytes содержимое class-файла.
+	 * @throws IllegalArgumentException если class-файл повреждён.
+	 */
+	@SuppressWarnings("NotNullFieldNotInitialized")
+	public LibraryClass(byte[] bytes) {
+		new ClassReader(bytes).accept(
+				new Visitor(),
+				ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES
+		);
+	}
+
+	@Override
+	public Optional<? extends IField> findField(FieldDescriptor descriptor) {
+		return Optional.ofNullable(fields.get(descriptor));
+	}
+
+	@Override
+	public Optional<? extends IMethod> findMethod(MethodDescriptor descriptor) {
+		return Optional.ofNullable(methods.get(descriptor));
+	}
+
+
+	private class Visitor extends ClassVisitor {
+		private Visitor() {
+			super(Opcodes.ASM9);
+		}
+
+		@Override
+		public void visit(int version, int modifiers, String name, @Nullable String signature,
+		                  @Nullable String superName, String @Nullable[] interfaceNames) {
+
+			var interfaces = interfaceNames == null ? new String[0] : interfaceNames;
+
+			// Как и в рефлексии, у интерфейсов нет суперкласса
+			thisType = ClassType.valueOf(name,
+					(modifiers & Opcodes.ACC_INTERFACE) != 0 ? null : superName, interfaces);
+
+			LibraryClass.this.modifiers = modifiers & ~Opcodes.ACC_SUPER;
+			superType = superName == null ? ClassType.OBJECT : ClassType.valueOf(superName);
+			LibraryClass.this.interfaces = Arrays.stream(interfaces).<IClassType>map(ClassType::valueOf).toList();
+		}
+
+		@Override
+		public void visitInnerClass(String name, @Nullable String outerName, @Nullable String innerName, int access) {
+			// Модификаторы вложенного класса хранятся только в атрибуте InnerClasses
+			if (name.equals(thisType.getClassBinName())) {
+				modifiers = access;
+			}
+		}
+
+		@Override
+		public @Nullable FieldVisitor visitField(int access, String name, String descriptor,
+		                                         @Nullable String signature, @Nullable Object value) {
+
+			if ((access & Opcodes.ACC_PUBLIC) != 0) {
+				var field = new LibraryField(access, FieldDescriptor.of(thisType, name, descriptor), signature);
+				fields.put(field.getDescriptor(), field);
+			}
+
+			return null;
+		}
+
+		@Override
+		public @Nullable MethodVisitor visitMethod(int access, String name, String descriptor,
+		                                           @Nullable String signature, String @Nullable[] exceptions) {
+
+			if ((access & Opcodes.ACC_PUBLIC) != 0 && name.charAt(0) != '<') {
+				var method = new LibraryMethod(access, MethodDescriptor.of(thisType, name, descriptor), signature);
+				methods.put(method.getDescriptor(), method);
+			}
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package x590.newyava;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+import x590.newyava.descriptor.FieldDescriptor;
+import x590.newyava.io.SignatureReader;
+import x590.newyava.type.ReferenceType;
+
+/**
+ * Поле библиотечного класса. Сигнатура разбирается только при первом обращении
+ * к {@link #getVisibleDescriptor()}.
+ */
+@Getter
+public class LibraryField implements IField {
+	private final int modifiers;
+	private final FieldDescriptor descriptor;
+
+	@Getter(lazy = true)
+	private final FieldDescriptor visibleDescriptor = parseVisibleDescriptor();
+
+	@Getter(AccessLevel.NONE)
+	private final @Nullable String signature;
+
+	public LibraryField(int modifiers, FieldDescriptor descriptor, @Nullable String signature) {
+		this.modifiers = modifiers;
+		this.descriptor = descriptor;
+		this.signature = signature;
+	}
+
+	private FieldDescriptor parseVisibleDescriptor() {
+		return signature == null ? descriptor :
+				new FieldDescriptor(
+						descriptor.hostClass(), descriptor.name(),
+						SignatureReader.parse(signature, ReferenceType::parse)
+				);
+	}
+}
@@ -0,0 +1,44 @@
+package x590.newyava;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+import x590.newyava.descriptor.MethodDescriptor;
+import x590.newyava.io.SignatureReader;
+import x590.newyava.type.Signature;
+import x590.newyava.type.Type;
+
+/**
+ * Метод библиотечного класса. Сигнатура разбирается только при первом обращении
+ * к {@link #getVisibleDescriptor()}.
+ */
+@Getter
+public class LibraryMethod implements IMethod {
+	private final int modifiers;
+	private final MethodDescriptor descriptor;
+
+	@Getter(lazy = true)
+	private final MethodDescriptor visibleDescriptor = parseVisibleDescriptor();
+
+	@Getter(AccessLevel.NONE)
+	private final @Nullable String signature;
+
+	public LibraryMethod(int modifiers, MethodDescriptor descriptor, @Nullable String signature) {
+		this.modifiers = modifiers;
+		this.descriptor = descriptor;
+		this.signature = signature;
+	}
+
+	private MethodDescriptor parseVisibleDescriptor() {
+		if (signature == null)
+			return descriptor;
+
+		var reader = new SignatureReader(signature);
+		Signature.parseOrEmpty(reader);
+
+		var arguments = Type.parseMethodArguments(reader);
+		var returnType = Type.parseReturnType(reader);
+
+		return new MethodDescriptor(descriptor.hostClass(), descriptor.name(), returnType, arguments);
+	}
+}
@@ -0,0 +1,37 @@
+package x590.newyava;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: действие над кодом метода (см. {@link DecompilationListener#methodStageFinished}).
+ * Действие {@code "decompile"} соответствует {@link x590.newyava.decompilation.code.CodeGraph#decompile}.
+ * По умолчанию записываются только действия дольше 1 мс, порог можно изменить в настройках записи.
+ */
+@Name("x590.newyava.MethodStage")
+@Label("Method Stage")
+@Description("Decompilation stage of a single method")
+@Category({"NewYava", "Methods"})
+@Threshold("1 ms")
+@StackTrace(false)
+final class MethodStageEvent extends Event {
+
+	@Label("Class")
+	String className;
+
+	@Label("Method")
+	String method;
+
+	@Label("Stage")
+	String stage;
+
+	@Label("Instructions")
+	int instructions;
+
+	@Label("Chunks")
+	@Description("Number of chunks, known after the decompile stage")
+	int chunks;
+
+	@Label("Outcome")
+	@Description("success, failure or timeout")
+	String outcome;
+}
@@ -0,0 +1,338 @@
+package x590.newyava;
+
+import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import x590.newyava.type.ClassType;
+import x590.newyava.type.IClassArrayType;
+import x590.newyava.type.IClassType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Облегчённый индекс всех классов для потокового режима (см. {@link Config#getStreamingMemoryBudget()}).
+ * <p>
+ * Хранит скелеты классов - {@link DecompilingClass}, прочитанные без кода методов. Скелетов достаточно
+ * для поиска классов, полей и методов и для связывания вложенных классов, а занимают они намного меньше памяти.
+ * <p>
+ * Гнёзда (класс верхнего уровня вместе со всеми вложенными, локальными и анонимными классами)
+ * разбиваются на окна, которые полностью читаются, декомпилируются и записываются по очереди.
+ * Вместе с гнёздами окна читаются и декомпилируются гнёзда, на классы которых они ссылаются,
+ * так как через эти ссылки читаются результаты декомпиляции других классов.
+ * @param <T> тип источника class-файла.
+ */
+final class SkeletonIndex<T> {
+
+	/**
+	 * Скелет класса.
+	 * @param source источник, из которого класс читается повторно при декомпиляции.
+	 * @param size размер class-файла в байтах.
+	 * @param hash хеш содержимого class-файла.
+	 */
+	record Entry<T>(T source, DecompilingClass skeleton, int size, HashCode hash) {
+		Entry(T source, DecompilingClass skeleton, byte[] bytes) {
+			this(source, skeleton, bytes.length, Hashing.sha256().hashBytes(bytes));
+		}
+	}
+
+	/**
+	 * Окно декомпиляции.
+	 * @param targets источники классов, которые декомпилируются и записываются.
+	 * @param context источники классов, от которых зависят {@code targets}. Они декомпилируются, но не записываются.
+	 */
+	record Window<T>(@Unmodifiable List<T> targets, @Unmodifiable List<T> context) {}
+
+	@Getter
+	private final @Unmodifiable Map<IClassArrayType, DecompilingClass> skeletonMap;
+
+	/** Классы каждого гнезда в исходном порядке. */
+	private final @Unmodifiable List<List<Entry<T>>> nests;
+
+	/** Суммарный размер class-файлов каждого гнезда. */
+	private final long[] nestSizes;
+
+	/** Индексы гнёзд, от которых зависит каждое гнездо (без него самого). */
+	private final @Unmodifiable List<int[]> dependencies;
+
+	/** Индекс гнезда по бинарному имени каждого класса. */
+	private final @Unmodifiable Map<String, Integer> nestByName;
+
+	SkeletonIndex(@Unmodifiable List<Entry<T>> entries) {
+		this(entries, null);
+	}
+
+	/**
+	 * @param changedNests классы верхнего уровня (по вложенности, объявленной в class-файлах), в гнёздах
+	 *                     которых скелеты были добавлены, изменены или удалены со времени построения предыдущего
+	 *                     индекса с теми же скелетами, или {@code null}, если все скелеты новые.
+	 *                     Заново связываются и инициализируются только скелеты этих гнёзд и гнёзд,
+	 *                     в которых у классов есть супертипы из этих гнёзд (транзитивно).
+	 *                     Связи остальных скелетов остаются от предыдущего индекса (см. {@link IncrementalDecompiler}).
+	 */
+	SkeletonIndex(@Unmodifiable List<Entry<T>> entries, @Nullable Set<ClassType> changedNests) {
+		Map<IClassArrayType, DecompilingClass> skeletonMap = new HashMap<>();
+
+		for (var entry : entries) {
+			skeletonMap.put(entry.skeleton().getThisType(), entry.skeleton());
+		}
+
+		this.skeletonMap = Collections.unmodifiableMap(skeletonMap);
+
+		var affectedNests = changedNests == null ? null : affectedNests(changedNests);
+
+		List<DecompilingClass> relinked = entries.stream().map(Entry::skeleton)
+				.filter(skeleton -> affectedNests == null ||
+						affectedNests.contains(skeleton.getThisType().getTopLevelClass()))
+				.toList();
+
+		for (var skeleton : relinked) {
+			skeleton.resetNested();
+		}
+
+		for (var skeleton : relinked) {
+			skeleton.initNested(skeletonMap);
+		}
+
+		// Видимые дескрипторы методов инициализируются при декомпиляции.
+		// У скелетов нет кода, поэтому декомпиляция только инициализирует их.
+		for (var skeleton : relinked) {
+			skeleton.decompile();
+		}
+
+		Map<DecompilingClass, List<Entry<T>>> nestMap = new LinkedHashMap<>();
+
+		for (var entry : entries) {
+			nestMap.computeIfAbsent(entry.skeleton().getTopLevelClass(), clazz -> new ArrayList<>()).add(entry);
+		}
+
+		this.nests = List.copyOf(nestMap.values());
+		this.nestSizes = new long[nests.size()];
+
+		Map<String, Integer> nestByName = new HashMap<>();
+
+		for (int i = 0, s = nests.size(); i < s; i++) {
+			for (var entry : nests.get(i)) {
+				nestByName.put(entry.skeleton().getThisType().getClassBinName(), i);
+				nestSizes[i] += entry.size();
+			}
+		}
+
+		List<int[]> dependencies = new ArrayList<>(nests.size());
+
+		for (int i = 0, s = nests.size(); i < s; i++) {
+			int self = i;
+
+			dependencies.add(nests.get(i).stream()
+					.flatMap(entry -> entry.skeleton().getReferencedClassNames().stream())
+					.map(nestByName::get)
+					.filter(index -> index != null && index != self)
+					.mapToInt(Integer::intValue)
+					.distinct().toArray());
+		}
+
+		this.dependencies = Collections.unmodifiableList(dependencies);
+		this.nestByName = Collections.unmodifiableMap(nestByName);
+	}
+
+	/** @return {@code changedNests} и классы верхнего уровня гнёзд, в которых
+	 * у классов есть супертип (транзитивно) из {@code changedNests}. */
+	private Set<ClassType> affectedNests(Set<ClassType> changedNests) {
+		Set<ClassType> result = new HashSet<>(changedNests);
+
+		for (var skeleton : skeletonMap.values()) {
+			if (hasSupertypeIn(skeleton, changedNests)) {
+				result.add(skeleton.getThisType().getTopLevelClass());
+			}
+		}
+
+		return result;
+	}
+
+	private boolean hasSupertypeIn(DecompilingClass skeleton, Set<ClassType> nests) {
+		Set<DecompilingClass> visited = new HashSet<>();
+		Deque<DecompilingClass> queue = new ArrayDeque<>();
+		queue.add(skeleton);
+
+		while (!queue.isEmpty()) {
+			var clazz = queue.poll();
+
+			for (var supertype : Iterables.concat(List.of(clazz.getSuperType()), clazz.getInterfaces())) {
+				var found = skeletonMap.get(supertype.base());
+
+				if (found == null || !visited.add(found))
+					continue;
+
+				if (nests.contains(found.getThisType().getTopLevelClass()))
+					return true;
+
+				queue.add(found);
+			}
+		}
+
+		return false;
+	}
+
+
+	/** @return количество гнёзд. */
+	int nestCount() {
+		return nests.size();
+	}
+
+	/** @return класс верхнего уровня гнезда (скелет). */
+	DecompilingClass topLevelClass(int nestIndex) {
+		return nests.get(nestIndex).get(0).skeleton().getTopLevelClass();
+	}
+
+	/**
+	 * @return ключ {@link x590.newyava.cache.DecompilationCache DecompilationCache} для гнезда.
+	 * Ключ зависит от {@code fingerprint}, содержимого классов гнезда, гнёзд, от которых оно зависит,
+	 * и гнёзд со всеми их супертипами (транзитивно), так как, например, {@link Override @Override}
+	 * зависит от всей цепочки суперклассов. Остальные зависимости зависимостей не учитываются.
+	 * Библиотечные классы учитываются только через {@code fingerprint}
+	 * (см. {@link x590.newyava.classpath.ClassPath#fingerprint() ClassPath.fingerprint()}).
+	 */
+	String nestKey(int nestIndex, String fingerprint) {
+		var hasher = Hashing.sha256().newHasher();
+		hasher.putString(fingerprint, StandardCharsets.UTF_8);
+
+		putNest(hasher, nestIndex);
+
+		keyDependencies(nestIndex).intStream().boxed()
+				.sorted(Comparator.comparing(dep -> topLevelClass(dep).getThisType().getClassBinName()))
+				.forEach(dep -> putNest(hasher, dep));
+
+		return hasher.hash().toString();
+	}
+
+	/** @return индексы гнёзд, от которых зависит гнездо, и гнёзд, содержащих их супертипы
+	 * и супертипы классов самого гнезда (транзитивно). Само гнездо не входит в результат. */
+	private IntSet keyDependencies(int nestIndex) {
+		IntSet result = new IntOpenHashSet(dependencies.get(nestIndex));
+		IntArrayList queue = new IntArrayList(result);
+		queue.add(nestIndex);
+
+		while (!queue.isEmpty()) {
+			for (var entry : nests.get(queue.popInt())) {
+				var skeleton = entry.skeleton();
+				addSupertypeNest(skeleton.getSuperType(), nestIndex, result, queue);
+
+				for (var interf : skeleton.getInterfaces()) {
+					addSupertypeNest(interf, nestIndex, result, queue);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private void addSupertypeNest(IClassType supertype, int nestIndex, IntSet result, IntArrayList queue) {
+		var dep = nestByName.get(supertype.base().getClassBinName());
+
+		if (dep != null && dep != nestIndex && result.add(dep.intValue())) {
+			queue.add(dep.intValue());
+		}
+	}
+
+	/** Добавляет в {@code hasher} имена и хеши классов гнезда в порядке имён,
+	 * чтобы ключ не зависел от порядка классов во входных данных. */
+	private void putNest(Hasher hasher, int nestIndex) {
+		hasher.putInt(nests.get(nestIndex).size());
+
+		nests.get(nestIndex).stream()
+				.sorted(Comparator.comparing(entry -> entry.skeleton().getThisType().getClassBinName()))
+				.forEach(entry -> hasher
+						.putString(entry.skeleton().getThisType().getClassBinName(), StandardCharsets.UTF_8)
+						.putBytes(entry.hash().asBytes()));
+	}
+
+	/** Связывает вложенные классы окна. */
+	void initNested(@Unmodifiable Map<IClassArrayType, DecompilingClass> classMap) {
+		classMap.values().forEach(clazz -> clazz.initNested(classMap));
+	}
+
+	/**
+	 * Разбивает гнёзда на окна в исходном порядке. Суммарный размер class-файлов окна,
+	 * включая гнёзда, от которых оно зависит, не превышает {@code budget}.
+	 * Исключение - гнездо, которое вместе с зависимостями само превышает {@code budget}: оно попадает в отдельное окно.
+	 */
+	@Unmodifiable List<Window<T>> windows(long budget) {
+		return windows(budget, nestIndex -> true);
+	}
+
+	/**
+	 * То же, что и {@link #windows(long)}, но записываются только гнёзда, для которых {@code filter}
+	 * возвращает {@code true}. Остальные гнёзда попадают в окна только как зависимости.
+	 */
+	@Unmodifiable List<Window<T>> windows(long budget, IntPredicate filter) {
+		List<Window<T>> windows = new ArrayList<>();
+
+		IntSet targets = new IntLinkedOpenHashSet(),
+				context = new IntLinkedOpenHashSet();
+
+		long size = 0;
+
+		for (int i = 0, s = nests.size(); i < s; i++) {
+			if (!filter.test(i))
+				continue;
+
+			if (!targets.isEmpty() && size + additionalSize(i, targets, context) > budget) {
+				windows.add(createWindow(targets, context));
+				targets.clear();
+				context.clear();
+				size = 0;
+			}
+
+			size += additionalSize(i, targets, context);
+
+			context.remove(i);
+			targets.add(i);
+
+			for (int dep : dependencies.get(i)) {
+				if (!targets.contains(dep)) {
+					context.add(dep);
+				}
+			}
+		}
+
+		if (!targets.isEmpty()) {
+			windows.add(createWindow(targets, context));
+		}
+
+		return Collections.unmodifiableList(windows);
+	}
+
+	/** @return размер гнезда {@code nestIndex} и его зависимостей, которых ещё нет в окне. */
+	private long additionalSize(int nestIndex, IntSet targets, IntSet context) {
+		long size = targets.contains(nestIndex) || context.contains(nestIndex) ? 0 : nestSizes[nestIndex];
+
+		for (int dep : dependencies.get(nestIndex)) {
+			if (!targets.contains(dep) && !context.contains(dep)) {
+				size += nestSizes[dep];
+			}
+		}
+
+		return size;
+	}
+
+	private Window<T> createWindow(IntSet targets, IntSet context) {
+		return new Window<>(sources(targets), sources(context));
+	}
+
+	private @Unmodifiable List<T> sources(IntSet nestIndexes) {
+		return nestIndexes.intStream()
+				.mapToObj(nests::get)
+				.flatMap(List::stream)
+				.map(Entry::source)
+				.toList();
+	}
+}
@@ -0,0 +1,109 @@
+package x590.newyava;
+
+import org.jetbrains.annotations.Nullable;
+import x590.newyava.exception.DecompilationTimeoutException;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Бюджет времени декомпиляции класса или метода. Учитывается только время,
+ * в течение которого код класса или метода действительно обрабатывается (между {@link #start()} и {@link #stop()}),
+ * поэтому ожидание других классов между стадиями не расходует бюджет.
+ * <p>
+ * Бюджет проверяется кооперативно методом {@link #check()}: перед каждой стадией метода, каждые
+ * несколько инструкций при преобразовании инструкций в операции, на каждом чанке при поиске циклов,
+ * после каждого этапа построения {@code Scope}-ов и между проходами по переменным.
+ * Сам проход по дереву операций не прерывается, поэтому бюджет может быть превышен на время одного прохода.
+ * Бюджет метода также расходует бюджет класса, в котором он объявлен.
+ * <p>
+ * Не потокобезопасен: стадии одного класса выполняются последовательно.
+ * @see Config#getMethodTimeBudget()
+ * @see Config#getClassTimeBudget()
+ */
+public final class TimeBudget {
+
+	/** Бюджет без ограничения. Не изменяется. */
+	public static final TimeBudget UNLIMITED = new TimeBudget("", 0, null, new LongAdder());
+
+	/** Что ограничивает бюджет, для сообщения об ошибке. */
+	private final String name;
+
+	/** Ограничение в наносекундах. {@code 0} - без ограничения. */
+	private final long limit;
+
+	private final @Nullable TimeBudget parent;
+
+	/** Счётчик превышений бюджета, общий для всех бюджетов одного {@link Decompiler}. */
+	private final LongAdder timeouts;
+
+	private long spent;
+
+	/** Время начала текущего отрезка работы или {@code -1}, если работа не идёт. */
+	private long start = -1;
+
+	private TimeBudget(String name, long limitMillis, @Nullable TimeBudget parent, LongAdder timeouts) {
+		this.name = name;
+		this.limit = limitMillis * 1_000_000;
+		this.parent = parent;
+		this.timeouts = timeouts;
+	}
+
+	/** @return бюджет класса. Если {@code limitMillis} равно 0, то время класса не ограничено. */
+	static TimeBudget forClass(long limitMillis, LongAdder timeouts) {
+		return new TimeBudget("Class", limitMillis, null, timeouts);
+	}
+
+	/** @return бюджет метода, который также расходует данный бюджет.
+	 * Если {@code limitMillis} равно 0, то время ограничено только данным бюджетом. */
+	public TimeBudget forMethod(long limitMillis) {
+		return this == UNLIMITED && limitMillis == 0 ? UNLIMITED :
+				new TimeBudget("Method", limitMillis, this, timeouts);
+	}
+
+	/** Начинает отрезок работы. */
+	public void start() {
+		if (this == UNLIMITED) return;
+
+		start = System.nanoTime();
+
+		if (parent != null) {
+			parent.start();
+		}
+	}
+
+	/** Завершает отрезок работы. */
+	public void stop() {
+		if (this == UNLIMITED || start == -1) return;
+
+		spent += System.nanoTime() - start;
+		start = -1;
+
+		if (parent != null) {
+			parent.stop();
+		}
+	}
+
+	/**
+	 * Проверяет, что бюджет не превышен.
+	 * @throws DecompilationTimeoutException если превышен данный бюджет или бюджет класса.
+	 */
+	public void check() {
+		if (this == UNLIMITED) return;
+
+		if (limit != 0 && spent() > limit) {
+			timeouts.increment();
+
+			throw new DecompilationTimeoutException(String.format(
+					"%s decompilation exceeded time budget of %d ms", name, limit / 1_000_000
+			));
+		}
+
+		if (parent != null) {
+			parent.check();
+		}
+	}
+
+	private long spent() {
+		return start == -1 ? spent : spent + System.nanoTime() - start;
+	}
+}
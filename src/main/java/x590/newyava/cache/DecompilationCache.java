@@ -0,0 +1,373 @@
+package x590.newyava.cache;
+
+import org.jetbrains.annotations.Nullable;
+import x590.newyava.Log;
+import x590.newyava.io.WriterFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Постоянный кеш декомпилированных классов на диске.
+ * Ключ - хеш содержимого class-файлов класса верхнего уровня, его вложенных классов,
+ * классов, от которых он зависит, и настроек, влияющих на вывод
+ * (вычисляется в {@link x590.newyava.Decompiler Decompiler}).
+ * Значение - текст класса, записанный в {@link WriterFactory}.
+ * <p>
+ * Каждая запись хранится в отдельном файле с заголовком, содержащим длину и CRC32 текста,
+ * поэтому повреждённая или недописанная запись обнаруживается при чтении и удаляется.
+ * Суммарный размер записей ограничен: при превышении удаляются записи, которые дольше всего не использовались.
+ * Потокобезопасен.
+ */
+public class DecompilationCache {
+
+	/** Максимальный размер кеша по умолчанию - 256 МиБ. */
+	public static final long DEFAULT_MAX_SIZE = 256L << 20;
+
+	private static final String HEADER_PREFIX = "NewYava-cache-1 ";
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	/** Суммарный размер файлов записей. */
+	private final AtomicLong size = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong();
+
+	public DecompilationCache(Path directory) throws IOException {
+		this(directory, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param directory директория кеша. Создаётся, если не существует.
+	 * @param maxSize максимальный суммарный размер записей в байтах.
+	 */
+	public DecompilationCache(Path directory, long maxSize) throws IOException {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+
+		this.directory = directory;
+		this.maxSize = maxSize;
+
+		Files.createDirectories(directory);
+
+		try (var entries = entries()) {
+			entries.forEach(entry -> size.addAndGet(fileSize(entry)));
+		}
+	}
+
+	/**
+	 * @return текст класса по ключу или {@code null}, если записи нет или она повреждена.
+	 * Повреждённая запись удаляется.
+	 */
+	public @Nullable String get(String key) {
+		var file = entryFile(key);
+		byte[] bytes;
+
+		try {
+			bytes = Files.readAllBytes(file);
+		} catch (NoSuchFileException ex) {
+			misses.incrementAndGet();
+			return null;
+		} catch (IOException ex) {
+			Log.warn("Cannot read cache entry %s: %s", file, ex);
+			misses.incrementAndGet();
+			return null;
+		}
+
+		var content = decode(bytes);
+
+		if (content == null) {
+			Log.warn("Cache entry %s is corrupted, removing it", file);
+			remove(file);
+			misses.incrementAndGet();
+			return null;
+		}
+
+		try {
+			// Время изменения используется как время последнего использования при вытеснении
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException ignored) {}
+
+		hits.incrementAndGet();
+		return content;
+	}
+
+	/** Сохраняет текст класса по ключу. При превышении максимального размера вытесняет старые записи. */
+	public void put(String key, CharSequence content) {
+		var file = entryFile(key);
+		var tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+		byte[] bytes = encode(content);
+
+		try {
+			Files.createDirectories(file.getParent());
+			Files.write(tmpFile, bytes);
+
+			long oldSize = Files.exists(file) ? fileSize(file) : 0;
+
+			// Запись сначала пишется во временный файл, чтобы другой процесс не прочитал её частично
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+			size.addAndGet(bytes.length - oldSize);
+
+		} catch (IOException ex) {
+			Log.warn("Cannot write cache entry %s: %s", file, ex);
+			return;
+		}
+
+		if (size.get() > maxSize) {
+			evict();
+		}
+	}
+
+	/** @return статистику использования кеша за время жизни объекта. */
+	public Stats getStats() {
+		return new Stats(hits.get(), misses.get(), evictions.get(), size.get());
+	}
+
+	/**
+	 * Возвращает фабрику, которая передаёт классы в {@code writerFactory} и одновременно сохраняет их текст в кеш.
+	 * @param keys возвращает ключ кеша по полному имени класса верхнего уровня
+	 *             или {@code null}, если класс не нужно кешировать.
+	 *             Вызывается при закрытии {@link Writer}-а, т.е. после записи класса.
+	 */
+	public WriterFactory caching(WriterFactory writerFactory, Function<String, @Nullable String> keys) {
+		return new CachingWriterFactory(writerFactory, keys);
+	}
+
+
+	/**
+	 * Статистика кеша.
+	 * @param hits количество найденных записей.
+	 * @param misses количество отсутствующих или повреждённых записей.
+	 * @param evictions количество вытесненных записей.
+	 * @param size суммарный размер записей в байтах.
+	 */
+	public record Stats(long hits, long misses, long evictions, long size) {
+		@Override
+		public String toString() {
+			return String.format("hits: %d, misses: %d, evictions: %d, size: %d", hits, misses, evictions, size);
+		}
+	}
+
+
+	private Path entryFile(String key) {
+		return directory.resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	private Stream<Path> entries() throws IOException {
+		return Files.find(directory, 2, (path, attributes) ->
+				attributes.isRegularFile() && !path.getFileName().toString().endsWith(".tmp"));
+	}
+
+	/** Удаляет записи, которые дольше всего не использовались, пока размер кеша не станет меньше 90% от максимального. */
+	private synchronized void evict() {
+		if (size.get() <= maxSize)
+			return;
+
+		List<Path> files;
+
+		try (var entries = entries()) {
+			files = new ArrayList<>(entries.toList());
+		} catch (IOException ex) {
+			Log.warn("Cannot list cache directory %s: %s", directory, ex);
+			return;
+		}
+
+		Map<Path, FileTime> times = new HashMap<>();
+
+		for (var file : files) {
+			try {
+				times.put(file, Files.getLastModifiedTime(file));
+			} catch (IOException ex) {
+				times.put(file, FileTime.fromMillis(0));
+			}
+		}
+
+		files.sort(Comparator.comparing(times::get));
+
+		long target = maxSize / 10 * 9;
+
+		for (var iter = files.iterator(); iter.hasNext() && size.get() > target; ) {
+			if (remove(iter.next())) {
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	private boolean remove(Path file) {
+		long fileSize = fileSize(file);
+
+		try {
+			if (Files.deleteIfExists(file)) {
+				size.addAndGet(-fileSize);
+				return true;
+			}
+		} catch (IOException ex) {
+			Log.warn("Cannot remove cache entry %s: %s", file, ex);
+		}
+
+		return false;
+	}
+
+	private static long fileSize(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException ex) {
+			return 0;
+		}
+	}
+
+	private static byte[] encode(CharSequence content) {
+		ByteBuffer text = StandardCharsets.UTF_8.encode(CharBuffer.wrap(content));
+
+		var crc = new CRC32();
+		crc.update(text.duplicate());
+
+		byte[] header = (HEADER_PREFIX + text.remaining() + " " + Long.toHexString(crc.getValue()) + "\n")
+				.getBytes(StandardCharsets.US_ASCII);
+
+		byte[] bytes = new byte[header.length + text.remaining()];
+		System.arraycopy(header, 0, bytes, 0, header.length);
+		text.get(bytes, header.length, text.remaining());
+		return bytes;
+	}
+
+	/** @return текст записи или {@code null}, если заголовок не совпадает с содержимым. */
+	private static @Nullable String decode(byte[] bytes) {
+		int headerEnd = 0;
+
+		while (headerEnd < bytes.length && bytes[headerEnd] != '\n') {
+			headerEnd++;
+		}
+
+		if (headerEnd == bytes.length)
+			return null;
+
+		var header = new String(bytes, 0, headerEnd, StandardCharsets.US_ASCII);
+
+		if (!header.startsWith(HEADER_PREFIX))
+			return null;
+
+		var parts = header.substring(HEADER_PREFIX.length()).split(" ");
+
+		if (parts.length != 2)
+			return null;
+
+		int start = headerEnd + 1,
+			length = bytes.length - start;
+
+		try {
+			if (Integer.parseInt(parts[0]) != length)
+				return null;
+
+			var crc = new CRC32();
+			crc.update(bytes, start, length);
+
+			if (Long.parseUnsignedLong(parts[1], 16) != crc.getValue())
+				return null;
+
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+
+		return new String(bytes, start, length, StandardCharsets.UTF_8);
+	}
+
+
+	/** Передаёт текст классов во внутреннюю фабрику и сохраняет его в кеш после закрытия. */
+	private class CachingWriterFactory implements WriterFactory {
+		private final WriterFactory writerFactory;
+		private final Function<String, @Nullable String> keys;
+
+		private CachingWriterFactory(WriterFactory writerFactory, Function<String, @Nullable String> keys) {
+			this.writerFactory = writerFactory;
+			this.keys = keys;
+		}
+
+		@Override
+		public Writer getWriter(String className) throws IOException {
+			return new TeeWriter(writerFactory.getWriter(className), className);
+		}
+
+		@Override
+		public void closeWriter(Writer writer) throws IOException {
+			var tee = (TeeWriter)writer;
+			writerFactory.closeWriter(tee.out);
+
+			var key = keys.apply(tee.className);
+
+			if (key != null) {
+				put(key, tee.getContent());
+			}
+		}
+
+		@Override
+		public void removeClass(String className) throws IOException {
+			writerFactory.removeClass(className);
+		}
+
+		@Override
+		public void close() throws IOException {
+			writerFactory.close();
+		}
+	}
+
+	/** Записывает текст во внутренний {@link Writer} и одновременно накапливает его в памяти. */
+	private static final class TeeWriter extends Writer {
+		private final Writer out;
+		private final String className;
+		private final StringBuilder content = new StringBuilder(8192);
+
+		private TeeWriter(Writer out, String className) {
+			this.out = out;
+			this.className = className;
+		}
+
+		private CharSequence getContent() {
+			return content;
+		}
+
+		@Override
+		public void write(char[] buffer, int off, int len) throws IOException {
+			content.append(buffer, off, len);
+			out.write(buffer, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			content.append(str, off, off + len);
+			out.write(str, off, len);
+		}
+
+		@Override
+		public Writer append(CharSequence csq) throws IOException {
+			content.append(csq);
+			out.append(csq);
+			return this;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+}
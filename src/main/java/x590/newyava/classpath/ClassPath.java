@@ -0,0 +1,70 @@
+package x590.newyava.classpath;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Путь поиска библиотечных классов, т.е. классов, которые не декомпилируются,
+ * но сведения о которых (суперклассы, методы, поля) нужны при декомпиляции.
+ * Классы не загружаются в JVM, а читаются как class-файлы.
+ * Реализации должны быть потокобезопасными.
+ */
+public interface ClassPath extends Closeable {
+
+	/** Пустой путь, в котором нет ни одного класса. */
+	ClassPath EMPTY = classBinName -> null;
+
+	/**
+	 * @param classBinName бинарное имя класса, например {@code "java/util/Map$Entry"}.
+	 * @return содержимое class-файла или {@code null}, если класс не найден.
+	 */
+	byte @Nullable[] findClass(String classBinName) throws IOException;
+
+	/**
+	 * @return строку, которая меняется при изменении классов этого пути. Входит в ключ
+	 * {@link x590.newyava.cache.DecompilationCache DecompilationCache}, так как текст классов
+	 * зависит от библиотечных классов.
+	 * По умолчанию возвращает пустую строку: изменения классов такого пути кеш не обнаруживает,
+	 * т.е. путь является границей инвалидации, и при его изменении кеш нужно очищать вручную.
+	 * @throws UncheckedIOException если не удалось прочитать сведения о файлах пути.
+	 */
+	default String fingerprint() {
+		return "";
+	}
+
+	@Override
+	default void close() throws IOException {}
+
+
+	/**
+	 * @return путь к классам в jar-архиве или в директории, в зависимости от того, на что указывает {@code path}.
+	 * @throws IOException если архив не удалось открыть.
+	 */
+	static ClassPath of(Path path) throws IOException {
+		return Files.isDirectory(path) ? new DirectoryClassPath(path) : new JarClassPath(path);
+	}
+
+	/** @return путь, в котором классы ищутся последовательно во всех переданных путях. */
+	static ClassPath of(ClassPath... classPaths) {
+		return new CompositeClassPath(List.of(classPaths));
+	}
+
+	/** @return путь к классам текущей JDK из образа {@code jrt:/}. */
+	static ClassPath jrt() {
+		return JrtClassPath.getInstance();
+	}
+
+	/**
+	 * @return путь к классам текущей JDK, а также к классам из свойств {@code java.class.path}
+	 * и {@code jdk.module.path}. Индексируется при первом поиске класса.
+	 */
+	static ClassPath system() {
+		return SystemClassPath.INSTANCE;
+	}
+}
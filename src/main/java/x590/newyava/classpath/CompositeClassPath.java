@@ -0,0 +1,56 @@
+package x590.newyava.classpath;
+
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Путь, в котором классы ищутся последовательно во всех вложенных путях.
+ * Первый найденный класс перекрывает все последующие.
+ */
+class CompositeClassPath implements ClassPath {
+	private final @Unmodifiable List<ClassPath> classPaths;
+
+	CompositeClassPath(@Unmodifiable List<ClassPath> classPaths) {
+		this.classPaths = classPaths;
+	}
+
+	@Override
+	public byte @Nullable[] findClass(String classBinName) throws IOException {
+		for (var classPath : classPaths) {
+			var bytes = classPath.findClass(classBinName);
+
+			if (bytes != null) {
+				return bytes;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public String fingerprint() {
+		return classPaths.stream().map(ClassPath::fingerprint).collect(Collectors.joining(";", "[", "]"));
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException exception = null;
+
+		for (var classPath : classPaths) {
+			try {
+				classPath.close();
+			} catch (IOException ex) {
+				if (exception == null) exception = ex;
+				else exception.addSuppressed(ex);
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package x590.newyava.classpath;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Stream;
+
+/**
+ * Путь к классам в директории, где class-файлы разложены по пакетам.
+ * Файловая система сама служит индексом, поэтому директория не обходится заранее.
+ * Обходится она только при вычислении {@link #fingerprint()}.
+ */
+public class DirectoryClassPath implements ClassPath {
+	private final Path directory;
+
+	public DirectoryClassPath(Path directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public byte @Nullable[] findClass(String classBinName) throws IOException {
+		try {
+			return Files.readAllBytes(directory.resolve(classBinName + ".class"));
+		} catch (NoSuchFileException ex) {
+			return null;
+		}
+	}
+
+	/** @return путь к директории и хеш имён, размеров и времени изменения всех class-файлов в ней. */
+	@Override
+	public String fingerprint() {
+		var hasher = Hashing.sha256().newHasher();
+
+		try (Stream<Path> files = Files.find(directory, Integer.MAX_VALUE,
+				(file, attributes) -> attributes.isRegularFile() && file.toString().endsWith(".class"))) {
+
+			for (var file : (Iterable<Path>)files.sorted()::iterator) {
+				var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+				hasher.putString(directory.relativize(file).toString(), StandardCharsets.UTF_8)
+						.putLong(attributes.size())
+						.putLong(attributes.lastModifiedTime().toMillis());
+			}
+
+		} catch (NoSuchFileException ex) {
+			return "dir:" + directory + ":missing";
+
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return "dir:" + directory + ":" + hasher.hash();
+	}
+}
@@ -0,0 +1,77 @@
+package x590.newyava.classpath;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Путь к классам в jar- или zip-архиве. Все записи архива индексируются один раз при открытии.
+ * Для multi-release jar берутся версии классов, соответствующие текущей версии JVM.
+ */
+public class JarClassPath implements ClassPath {
+	private final ZipFile zipFile;
+
+	/** Записи class-файлов по бинарному имени класса. */
+	private final Map<String, ZipEntry> entries;
+
+	public JarClassPath(Path path) throws IOException {
+		this(new JarFile(path.toFile(), false, ZipFile.OPEN_READ, JarFile.runtimeVersion()));
+	}
+
+	/** Архив закрывается при вызове {@link #close()}. */
+	public JarClassPath(ZipFile zipFile) {
+		this.zipFile = zipFile;
+
+		Stream<? extends ZipEntry> entries = zipFile instanceof JarFile jarFile && jarFile.isMultiRelease() ?
+				jarFile.versionedStream() :
+				zipFile.stream().filter(entry -> !entry.getName().startsWith("META-INF/versions/"));
+
+		this.entries = entries
+				.filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".class"))
+				.collect(Collectors.toUnmodifiableMap(
+						entry -> entry.getName().substring(0, entry.getName().length() - ".class".length()),
+						Function.identity(),
+						(entry1, entry2) -> entry1
+				));
+	}
+
+	@Override
+	public byte @Nullable[] findClass(String classBinName) throws IOException {
+		var entry = entries.get(classBinName);
+		if (entry == null) return null;
+
+		try (var in = zipFile.getInputStream(entry)) {
+			return in.readAllBytes();
+		}
+	}
+
+	/** @return путь к архиву, его размер и время изменения. */
+	@Override
+	public String fingerprint() {
+		var path = Path.of(zipFile.getName());
+
+		try {
+			var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			return "jar:" + path + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		zipFile.close();
+	}
+}
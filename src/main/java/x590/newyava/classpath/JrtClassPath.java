@@ -0,0 +1,83 @@
+package x590.newyava.classpath;
+
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Путь к классам текущей JDK из образа {@code jrt:/}.
+ * При создании индексируются пакеты: для каждого пакета запоминаются модули, в которых он есть,
+ * поэтому поиск класса не перебирает все модули.
+ */
+class JrtClassPath implements ClassPath {
+
+	private static final class Holder {
+		private static final JrtClassPath INSTANCE = new JrtClassPath();
+	}
+
+	static JrtClassPath getInstance() {
+		return Holder.INSTANCE;
+	}
+
+
+	/** Корневые директории модулей по бинарному имени пакета, например {@code "java/lang"}. */
+	private final Map<String, @Unmodifiable List<Path>> packages;
+
+	private JrtClassPath() {
+		FileSystem fileSystem = FileSystems.getFileSystem(URI.create("jrt:/"));
+		Path modules = fileSystem.getPath("/modules");
+
+		try (Stream<Path> packageDirs = Files.list(fileSystem.getPath("/packages"))) {
+			this.packages = packageDirs.collect(Collectors.toUnmodifiableMap(
+					packageDir -> packageDir.getFileName().toString().replace('.', '/'),
+					packageDir -> listModules(modules, packageDir)
+			));
+
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static @Unmodifiable List<Path> listModules(Path modules, Path packageDir) {
+		try (Stream<Path> moduleLinks = Files.list(packageDir)) {
+			return moduleLinks.map(link -> modules.resolve(link.getFileName().toString())).toList();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public byte @Nullable[] findClass(String classBinName) throws IOException {
+		int index = classBinName.lastIndexOf('/');
+		if (index < 0) return null;
+
+		var modules = packages.get(classBinName.substring(0, index));
+		if (modules == null) return null;
+
+		for (Path module : modules) {
+			try {
+				return Files.readAllBytes(module.resolve(classBinName + ".class"));
+			} catch (NoSuchFileException ignored) {}
+		}
+
+		return null;
+	}
+
+	/** @return версию JDK, так как образ {@code jrt:/} меняется только вместе с ней. */
+	@Override
+	public String fingerprint() {
+		return "jrt:" + Runtime.version();
+	}
+}
@@ -0,0 +1,105 @@
+package x590.newyava.classpath;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+
+/**
+ * Путь к классам текущей JDK и к классам из свойств {@code java.class.path} и {@code jdk.module.path}.
+ * Как и системный загрузчик классов, учитывает атрибут {@code Class-Path} в манифестах jar-архивов.
+ * Все пути открываются и индексируются при первом поиске класса.
+ * Несуществующие и повреждённые пути пропускаются.
+ */
+final class SystemClassPath implements ClassPath {
+
+	static final SystemClassPath INSTANCE = new SystemClassPath();
+
+	private SystemClassPath() {}
+
+	private static final class Holder {
+		private static final ClassPath CLASS_PATH = create();
+	}
+
+	private static ClassPath create() {
+		Set<Path> paths = new LinkedHashSet<>();
+		addPaths(paths, System.getProperty("java.class.path"));
+		addPaths(paths, System.getProperty("jdk.module.path"));
+
+		List<ClassPath> classPaths = new ArrayList<>(paths.size() + 1);
+		classPaths.add(ClassPath.jrt());
+
+		for (Path path : paths) {
+			try {
+				if (Files.isDirectory(path)) {
+					classPaths.add(new DirectoryClassPath(path));
+
+				} else if (Files.isRegularFile(path)) {
+					classPaths.add(new JarClassPath(path));
+				}
+
+			} catch (IOException ignored) {}
+		}
+
+		return new CompositeClassPath(Collections.unmodifiableList(classPaths));
+	}
+
+	private static void addPaths(Set<Path> paths, @Nullable String property) {
+		if (property == null || property.isEmpty())
+			return;
+
+		for (String entry : property.split(File.pathSeparator)) {
+			if (!entry.isEmpty()) {
+				try {
+					addPath(paths, Path.of(entry).toAbsolutePath().normalize());
+				} catch (InvalidPathException ignored) {}
+			}
+		}
+	}
+
+	/** Добавляет путь, а для jar-архивов ещё и пути из атрибута {@code Class-Path} манифеста. */
+	private static void addPath(Set<Path> paths, Path path) {
+		if (!paths.add(path) || !Files.isRegularFile(path))
+			return;
+
+		try (var jarFile = new JarFile(path.toFile())) {
+			var manifest = jarFile.getManifest();
+			if (manifest == null) return;
+
+			String classPath = manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+			if (classPath == null) return;
+
+			var base = path.toUri();
+
+			for (String entry : classPath.trim().split("\\s+")) {
+				if (!entry.isEmpty()) {
+					try {
+						var uri = base.resolve(entry);
+
+						if ("file".equals(uri.getScheme())) {
+							addPath(paths, Path.of(uri).normalize());
+						}
+
+					} catch (IllegalArgumentException ignored) {}
+				}
+			}
+
+		} catch (IOException ignored) {}
+	}
+
+	@Override
+	public byte @Nullable[] findClass(String classBinName) throws IOException {
+		return Holder.CLASS_PATH.findClass(classBinName);
+	}
+
+	@Override
+	public String fingerprint() {
+		return Holder.CLASS_PATH.fingerprint();
+	}
+}
@@ -1,7 +1,5 @@
 package x590.newyava.constant;
 
-import it.unimi.dsi.fastutil.doubles.Double2ObjectMap;
-import it.unimi.dsi.fastutil.doubles.Double2ObjectOpenHashMap;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +11,14 @@ import x590.newyava.io.DecompilationWriter;
 import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @EqualsAndHashCode(callSuper = false)
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class DoubleConstant extends Constant {
 
-	private static final Double2ObjectMap<DoubleConstant> CACHE = new Double2ObjectOpenHashMap<>();
+	private static final Map<Double, DoubleConstant> CACHE = new ConcurrentHashMap<>();
 
 	public static DoubleConstant valueOf(double value) {
 		return CACHE.computeIfAbsent(value, DoubleConstant::new);
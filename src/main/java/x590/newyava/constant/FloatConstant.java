@@ -1,7 +1,5 @@
 package x590.newyava.constant;
 
-import it.unimi.dsi.fastutil.floats.Float2ObjectMap;
-import it.unimi.dsi.fastutil.floats.Float2ObjectOpenHashMap;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +11,14 @@ import x590.newyava.io.DecompilationWriter;
 import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @EqualsAndHashCode(callSuper = false)
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class FloatConstant extends Constant {
 
-	private static final Float2ObjectMap<FloatConstant> CACHE = new Float2ObjectOpenHashMap<>();
+	private static final Map<Float, FloatConstant> CACHE = new ConcurrentHashMap<>();
 
 	public static FloatConstant valueOf(float value) {
 		return CACHE.computeIfAbsent(value, FloatConstant::new);
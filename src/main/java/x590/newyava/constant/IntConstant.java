@@ -1,7 +1,5 @@
 package x590.newyava.constant;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -15,10 +13,13 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 import x590.newyava.util.JavaEscapeUtils;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @EqualsAndHashCode(callSuper = false)
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class IntConstant extends Constant implements Comparable<IntConstant> {
-	private static final Int2ObjectMap<IntConstant> CACHE = new Int2ObjectOpenHashMap<>();
+	private static final Map<Integer, IntConstant> CACHE = new ConcurrentHashMap<>();
 
 	public static IntConstant valueOf(int value) {
 		return CACHE.computeIfAbsent(value, IntConstant::new);
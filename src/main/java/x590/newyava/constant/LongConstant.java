@@ -1,7 +1,5 @@
 package x590.newyava.constant;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +11,14 @@ import x590.newyava.io.DecompilationWriter;
 import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @EqualsAndHashCode(callSuper = false)
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class LongConstant extends Constant {
 
-	private static final Long2ObjectMap<LongConstant> CACHE = new Long2ObjectOpenHashMap<>();
+	private static final Map<Long, LongConstant> CACHE = new ConcurrentHashMap<>();
 
 	public static LongConstant valueOf(long value) {
 		return CACHE.computeIfAbsent(value, LongConstant::new);
@@ -108,6 +108,13 @@ public class ClassContext implements Context {
 		this.importCandidates = null;
 	}
 
+	/** Сбрасывает контекст внешнего класса, установленный {@link #setOuterContext(ClassContext)}.
+	 * Используется только для скелетов, импорты которых не вычислялись. */
+	public void resetOuterContext() {
+		this.outer = null;
+		this.importCandidates = HashMultiset.create();
+	}
+
 	/** Добавляет необходимые импорты для типа */
 	public ClassContext addImport(@Nullable Type type) {
 		if (type != null)
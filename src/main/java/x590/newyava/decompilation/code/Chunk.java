@@ -10,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
 import org.objectweb.asm.Label;
+import x590.newyava.TimeBudget;
 import x590.newyava.context.MethodContext;
 import x590.newyava.decompilation.instruction.FlowControlInsn;
 import x590.newyava.decompilation.instruction.Instruction;
@@ -37,6 +38,9 @@ import java.util.*;
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class Chunk implements Comparable<Chunk> {
 
+	/** Через какое количество инструкций проверяется {@link TimeBudget} в {@link #decompile}. Степень двойки. */
+	private static final int BUDGET_CHECK_INTERVAL = 64;
+
 	/** Индекс инструкции, на которой начинается чанк */
 	@Getter
 	private final int startIndex;
@@ -53,7 +57,7 @@ public class Chunk implements Comparable<Chunk> {
 	@Getter
 	private final @UnmodifiableView List<? extends VariableSlotView> varSlots;
 
-	private final List<Instruction> instructions = new ArrayList<>();
+	private List<Instruction> instructions = new ArrayList<>();
 
 	/** Инструкция контроля потока в конце чанка или {@code null}, если такой инструкции нет */
 	private @Nullable FlowControlInsn flowControlInsn;
@@ -147,20 +151,27 @@ public class Chunk implements Comparable<Chunk> {
 
 	/**
 	 * Преобразует инструкции в операции, включая инструкцию перехода.
-	 * @param catchMaps список карт, где ключ - id чанка, на котором начинается блок {@code catch},
-	 *                  значение - операция исключения, которое ловит этот блок.
+	 * @param catchByChunk карта, где ключ - id чанка, на котором начинается блок {@code catch},
+	 *                     значение - операция исключения, которое ловит этот блок.
+	 * @param timeBudget бюджет метода, проверяется каждые {@value #BUDGET_CHECK_INTERVAL} инструкций.
 	 */
-	void decompile(MethodContext methodContext, Collection<Int2ObjectMap<CatchOperation>> catchMaps) {
+	void decompile(MethodContext methodContext, Int2ObjectMap<CatchOperation> catchByChunk, TimeBudget timeBudget) {
 		methodContext.setCurrentChunk(this);
 
 		var stack = methodContext.getStack();
 
-		catchMaps.stream().map(map -> map.get(id))
-				.filter(Objects::nonNull).findAny()
-				.ifPresent(stack::push);
+		var catchOp = catchByChunk.get(id);
+
+		if (catchOp != null) {
+			stack.push(catchOp);
+		}
 
 
 		for (int i = 0, s = instructions.size(); i < s; i++) {
+			if ((i & (BUDGET_CHECK_INTERVAL - 1)) == 0) {
+				timeBudget.check();
+			}
+
 			Operation operation = null;
 
 			var instruction = instructions.get(i);
@@ -202,12 +213,10 @@ public class Chunk implements Comparable<Chunk> {
 	}
 
 	/** Инициализирует {@link #condition} и {@link #conditionalChunk} */
-	void linkChunks(@UnmodifiableView Object2IntMap<Label> labels,
-	                @UnmodifiableView Int2ObjectMap<Chunk> chunks) {
-
+	void linkChunks(@UnmodifiableView Object2IntMap<Label> labels, @Nullable Chunk[] chunkByIndex) {
 		if (jumpOperation != null) {
 			this.condition = jumpOperation.getCondition();
-			this.conditionalChunk = chunks.get(labels.getInt(jumpOperation.getLabel()));
+			this.conditionalChunk = chunkByIndex[labels.getInt(jumpOperation.getLabel())];
 		}
 	}
 
@@ -236,6 +245,14 @@ public class Chunk implements Comparable<Chunk> {
 		poppedOperations.clear();
 	}
 
+	/** Освобождает инструкции чанка после декомпиляции метода.
+	 * Операции и {@link #pushedOperations} остаются, так как используются {@link x590.newyava.decompilation.scope.Scope}-ами. */
+	void releaseInstructions() {
+		instructions = List.of();
+		flowControlInsn = null;
+		poppedOperations = null;
+	}
+
 
 	/* ---------------------------------------------------- Role ---------------------------------------------------- */
 
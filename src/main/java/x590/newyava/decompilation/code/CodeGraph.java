@@ -2,14 +2,17 @@ package x590.newyava.decompilation.code;
 
 import it.unimi.dsi.fastutil.ints.*;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import lombok.AllArgsConstructor;
-import lombok.RequiredArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
 import org.objectweb.asm.Label;
+import x590.newyava.TimeBudget;
 import x590.newyava.constant.IntConstant;
 import x590.newyava.context.ClassContext;
 import x590.newyava.context.Context;
@@ -43,35 +46,56 @@ import java.util.function.Function;
 
 /**
  * Хранит код и проводит его декомпиляцию.
+ * Структуры уровня инструкций нужны только для {@link #decompile} и освобождаются сразу после него.
  */
-@RequiredArgsConstructor
 public final class CodeGraph extends Code {
 
-	private final DecompileMethodVisitor visitor;
+	private final int modifiers;
 
-	private final List<Instruction> instructions = new ArrayList<>();
+	/** Список размеров всех переменных, объявленных в сигнатуре метода (в том числе this). */
+	private final IntList argumentsSizes;
+
+	private List<Instruction> instructions = new ArrayList<>();
+
+	/** Количество инструкций. Остаётся доступным после освобождения {@link #instructions}. */
+	private int size;
+
+	/** Бюджет времени метода. Проверяется между этапами декомпиляции и в длительных циклах. */
+	@Setter
+	private TimeBudget timeBudget = TimeBudget.UNLIMITED;
+
+	/** Количество чанков и {@link Scope}-ов (не считая {@link MethodScope}), найденных в {@link #decompile}. */
+	@Getter
+	private int chunkCount, scopeCount;
 
 	/** Связывает лейбл с индексом инструкции в списке {@link #instructions} */
-	private final Object2IntMap<Label> labels = new Object2IntOpenHashMap<>();
+	private Object2IntMap<Label> labels = new Object2IntOpenHashMap<>();
 
 
-	/** Набор лейблов, которые являются границами чанков. Нельзя преобразовать их сразу в индексы,
+	/** Лейблы, которые являются границами чанков (возможно, с повторами). Нельзя преобразовать их сразу в индексы,
 	 * так как их ещё нет в {@link #labels}, если лейбл указывает вперёд. */
-	private final Set<Label> breakpointLabels = new HashSet<>();
+	private List<Label> breakpointLabels = new ArrayList<>();
 
-	/** Набор индексов, которые являются границами чанков. */
-	private final IntSet breakpoints = new IntOpenHashSet();
+	/** Индексы инструкций, которые являются границами чанков. */
+	private BitSet breakpoints = new BitSet();
+
+	/** Визитор не сохраняется, чтобы он не удерживал граф после чтения класса. */
+	public CodeGraph(DecompileMethodVisitor visitor) {
+		this.modifiers = visitor.getModifiers();
+		this.argumentsSizes = visitor.getArgumentsSizes();
+	}
 
 
 	/** Добавляет инструкцию. Все инструкции, которые являются {@link FlowControlInsn},
 	 * должны быть добавлены с помощью метода {@link #addInstruction(FlowControlInsn)} */
 	public void addInstruction(Instruction instruction) {
 		instructions.add(instruction);
+		size++;
 	}
 
 	public void addInstruction(FlowControlInsn instruction) {
 		addInstruction((Instruction) instruction);
-		breakpoints.add(instructions.size());
+		breakpoints.set(instructions.size());
 		breakpointLabels.addAll(instruction.getLabels());
 	}
 
@@ -80,7 +104,7 @@ public final class CodeGraph extends Code {
 	}
 
 	public int getSize() {
-		return instructions.size();
+		return size;
 	}
 
 
@@ -159,10 +183,14 @@ public final class CodeGraph extends Code {
 
 		// Запускаем два раза для правильного вычисления типа констант
 		methodScope.inferType(PrimitiveType.VOID);
+		timeBudget.check();
 		methodScope.inferType(PrimitiveType.VOID);
+		timeBudget.check();
 
 		methodScope.declareVariables();
+		timeBudget.check();
 		methodScope.initPossibleVarNames();
+		timeBudget.check();
 		methodScope.initVariableNames();
 	}
 
@@ -194,7 +222,7 @@ public final class CodeGraph extends Code {
 	/* ------------------------------------------------- Try, catch ------------------------------------------------- */
 	private record TryCatchBlock(Label start, Label end, Label handler, @Nullable ClassType type) {}
 
-	private final List<TryCatchBlock> tryCatchBlocks = new ArrayList<>();
+	private List<TryCatchBlock> tryCatchBlocks = new ArrayList<>();
 
 	public void addTryCatchBlock(Label start, Label end, Label handler, @Nullable ClassType type) {
 		breakpointLabels.add(start);
@@ -204,41 +232,39 @@ public final class CodeGraph extends Code {
 		tryCatchBlocks.add(new TryCatchBlock(start, end, handler, type));
 	}
 
-	/** @return карту: ключ - блок try, значения - блоки catch, привязанные к этому try. */
-	private Map<IntIntPair, Int2ObjectMap<CatchOperation>> getTryCatchMap(
-			@UnmodifiableView Int2ObjectMap<Chunk> chunkMap
-	) {
+	/**
+	 * Разбирает таблицу исключений за один проход. Для каждого {@code catch} хранится {@code try},
+	 * к которому он привязан, поэтому поиск совпадающих {@code catch} не требует перебора всех {@code try}.
+	 * @return карту: ключ - блок try, значения - блоки catch, привязанные к этому try.
+	 */
+	private Map<IntIntPair, Int2ObjectMap<CatchOperation>> getTryCatchMap(@Nullable Chunk[] chunkByIndex) {
 		Map<IntIntPair, Int2ObjectMap<CatchOperation>> result = new HashMap<>();
 
+		// Ключ - id чанка, на котором начинается catch, значение - try, к которому привязан этот catch
+		Int2ObjectMap<IntIntPair> tryByCatch = new Int2ObjectOpenHashMap<>();
+
 		for (TryCatchBlock block : tryCatchBlocks) {
-			int tryStart = chunkMap.get(labels.getInt(block.start)).getId(),
-				tryEnd = chunkMap.get(labels.getInt(block.end)).getId(),
-				catchStart = chunkMap.get(labels.getInt(block.handler)).getId();
+			int tryStart = chunkAt(chunkByIndex, block.start).getId(),
+				tryEnd = chunkAt(chunkByIndex, block.end).getId(),
+				catchStart = chunkAt(chunkByIndex, block.handler).getId();
 
 			// Нашли try, который совпадает с другим catch
-			if (block.type == null &&
-				result.values().stream().anyMatch(catches -> catches.containsKey(tryStart))) {
+			if (block.type == null && tryByCatch.containsKey(tryStart)) {
 				continue; // Пока что проигнорируем его
 			}
 
-			var sameCatchEntry = result.entrySet().stream()
-					.filter(tryCatches -> tryCatches.getValue().containsKey(catchStart))
-					.findAny();
+			var anotherTry = tryByCatch.get(catchStart);
 
 			// Если catch совпадает с другим catch,
-			if (sameCatchEntry.isPresent()) {
+			if (anotherTry != null) {
 				// ... то объединяем два try в один
-				var anotherTry = sameCatchEntry.get().getKey();
-
 				var unitedTry = IntIntPair.of(
 						Math.min(tryStart, anotherTry.leftInt()),
 						Math.max(tryEnd, anotherTry.rightInt())
 				);
 
 				if (!anotherTry.equals(unitedTry)) {
-					result.remove(anotherTry);
-
-					var catches = sameCatchEntry.get().getValue();
+					var catches = result.remove(anotherTry);
 
 					result.compute(unitedTry, (key, otherCatches) -> {
 						if (otherCatches != null)
@@ -246,6 +272,10 @@ public final class CodeGraph extends Code {
 
 						return catches;
 					});
+
+					for (int catchId : catches.keySet()) {
+						tryByCatch.put(catchId, unitedTry);
+					}
 				}
 
 				continue;
@@ -257,6 +287,8 @@ public final class CodeGraph extends Code {
 					.computeIfAbsent(tryBlock, tb -> new Int2ObjectOpenHashMap<>())
 					.computeIfAbsent(catchStart, cs -> new CatchOperation());
 
+			tryByCatch.put(catchStart, tryBlock);
+
 			if (block.type != null) {
 				catchBlock.add(block.type);
 			}
@@ -275,28 +307,26 @@ public final class CodeGraph extends Code {
 	private void initCatchEndIndexes(Map<IntIntPair, Int2ObjectMap<CatchOperation>> tryCatchMap,
 	                                 @Unmodifiable List<Chunk> chunks) {
 
-		for (var tryBlock : tryCatchMap.keySet()) {
-			var iter = tryCatchMap.get(tryBlock)
-					.int2ObjectEntrySet().stream()
-					.sorted(Comparator.comparingInt(Int2ObjectMap.Entry::getIntKey))
-					.iterator();
+		for (var entry : tryCatchMap.entrySet()) {
+			var catchMap = entry.getValue();
 
-			var catch1 = iter.next();
+			int[] catchIds = catchMap.keySet().toIntArray();
+			Arrays.sort(catchIds);
 
 			// Инициализируем конечные индексы всех catch, кроме последнего
-			while (iter.hasNext()) {
-				var catch2 = iter.next();
-				catch1.getValue().setEndId(catch2.getIntKey());
-				catch1 = catch2;
+			for (int i = 1; i < catchIds.length; i++) {
+				catchMap.get(catchIds[i - 1]).setEndId(catchIds[i]);
 			}
 
 			// Инициализируем конечный индекс последнего catch
-			var lastCatchEnd = chunks.get(tryBlock.secondInt()).getConditionalChunk();
-			if (lastCatchEnd != null && lastCatchEnd.getId() > catch1.getIntKey()) {
-				catch1.getValue().setEndId(lastCatchEnd.getId());
-			} else {
-				catch1.getValue().setEndId(chunks.size());
-			}
+			int lastCatchId = catchIds[catchIds.length - 1];
+			var lastCatchEnd = chunks.get(entry.getKey().secondInt()).getConditionalChunk();
+
+			catchMap.get(lastCatchId).setEndId(
+					lastCatchEnd != null && lastCatchEnd.getId() > lastCatchId ?
+							lastCatchEnd.getId() :
+							chunks.size()
+			);
 		}
 	}
 
@@ -356,16 +386,21 @@ public final class CodeGraph extends Code {
 	/** Главный метод приложения. Именно здесь происходит вся магия.
 	 * Декомпилирует все операции, создаёт {@link Scope}-ы и инициализирует {@link #methodScope}. */
 	public void decompile(MethodDescriptor descriptor, Context context) {
-		Int2ObjectMap<Chunk> chunkMap = readChunkMap();
-		@Unmodifiable List<Chunk> chunks = chunkMap.values().stream().sorted().toList();
+		List<Chunk> chunkList = new ArrayList<>();
+		@Nullable Chunk[] chunkByIndex = readChunks(chunkList);
+		@Unmodifiable List<Chunk> chunks = Collections.unmodifiableList(chunkList);
 
-		var methodContext = new MethodContext(context, descriptor, visitor.getModifiers());
+		var methodContext = new MethodContext(context, descriptor, modifiers);
 		this.methodContext = methodContext;
 
-		var tryCatchMap = getTryCatchMap(chunkMap);
+		var tryCatchMap = getTryCatchMap(chunkByIndex);
+
+		Int2ObjectMap<CatchOperation> catchByChunk = new Int2ObjectOpenHashMap<>();
+		tryCatchMap.values().forEach(catchByChunk::putAll);
 
-		chunks.forEach(chunk -> chunk.decompile(methodContext, tryCatchMap.values()));
-		chunks.forEach(chunk -> chunk.linkChunks(labels, chunkMap));
+		chunks.forEach(chunk -> chunk.decompile(methodContext, catchByChunk, timeBudget));
+		chunks.forEach(chunk -> chunk.linkChunks(labels, chunkByIndex));
+		timeBudget.check();
 
 		initCatchEndIndexes(tryCatchMap, chunks);
 
@@ -379,9 +414,11 @@ public final class CodeGraph extends Code {
 
 		// Ищем циклы и операторы break/continue, связанные с ними
 		addScopes(scopes, chunks, findLoops(chunks), LoopScope::create);
+		timeBudget.check();
 
 		// Ищем switch и соответствующие break
-		addSwitchScopes(scopes, chunks, chunkMap);
+		addSwitchScopes(scopes, chunks, chunkByIndex);
+		timeBudget.check();
 
 		// Все условия, которые не являются заголовком цикла/break/continue, становятся if-ами
 		Int2IntMap ifChunkIds = findIfs(chunks);
@@ -395,53 +432,94 @@ public final class CodeGraph extends Code {
 		// После if-ов ищем связанные с ними else-ы
 		Int2IntMap elseChunkIds = findElses(chunks, ifChunkIds);
 		addScopes(scopes, chunks, elseChunkIds, ElseScope::create);
+		timeBudget.check();
 
 		// И строим иерархию Scope-ов
 		Collections.sort(scopes);
 		methodScope = hierarchizeScopes(chunks, scopes);
 
+		chunkCount = chunks.size();
+		scopeCount = scopes.size();
+
 		linkChunkStackStates(chunks);
+		timeBudget.check();
 
 		methodScope.postDecompilation(methodContext);
+
+		releaseInstructions(chunks);
 	}
 
+	/** Освобождает инструкции, лейблы и прочие структуры, которые не нужны после декомпиляции.
+	 * Чанки остаются доступными через {@link Scope}-ы, поэтому в них также освобождаются инструкции. */
+	private void releaseInstructions(@Unmodifiable List<Chunk> chunks) {
+		instructions = List.of();
+		labels = Object2IntMaps.emptyMap();
+		breakpointLabels = List.of();
+		breakpoints = new BitSet(0);
+		tryCatchBlocks = List.of();
+		last = null;
 
-	/** Преобразует список инструкций в карту чанков.
-	 * Ключ - индекс инструкции, значение - чанк, начинающийся на этом индексе.
-	 * Инициализирует поле {@link #last}. */
-	private Int2ObjectMap<Chunk> readChunkMap() {
+		chunks.forEach(Chunk::releaseInstructions);
+	}
+
+
+	/**
+	 * Разбивает список инструкций на чанки и добавляет их в {@code chunks} в порядке id.
+	 * Инициализирует поле {@link #last}.
+	 * @return таблицу: индекс - индекс инструкции, значение - чанк, начинающийся на этой инструкции,
+	 * или {@code null}. Длина таблицы на 1 больше количества инструкций, так как лейбл может стоять после
+	 * последней инструкции.
+	 */
+	private @Nullable Chunk[] readChunks(List<Chunk> chunks) {
 		for (var label : breakpointLabels) {
-			breakpoints.add(labels.getInt(label));
+			breakpoints.set(labels.getInt(label));
 		}
 
-		breakpoints.remove(0); // На индексе 0 всегда начинается первый чанк, тут не нужен брекпоинт
+		breakpoints.clear(0); // На индексе 0 всегда начинается первый чанк, тут не нужен брекпоинт
+
+		int size = instructions.size();
+		var chunkByIndex = new Chunk[size + 1];
 
 		Chunk current = new Chunk(0, 0, varTable.listView());
+		chunkByIndex[0] = current;
+		chunks.add(current);
+
+		for (int start = 0, end; ; start = end) {
+			end = breakpoints.nextSetBit(start + 1);
 
-		var chunkMap = new Int2ObjectOpenHashMap<Chunk>();
-		chunkMap.put(0, current);
+			if (end == -1 || end > size) {
+				end = size;
+			}
 
-		for (int i = 0, s = instructions.size(); i < s; i++) {
-			if (breakpoints.contains(i)) {
-				var newChunk = new Chunk(i, chunkMap.size(), varTable.listView());
+			for (int i = start; i < end; i++) {
+				current.addInstruction(instructions.get(i));
+			}
 
-				if (instructions.get(i - 1).canStay()) {
-					current.setDirectChunk(newChunk);
-				}
+			if (end == size)
+				break;
 
-				current.setEndIndex(i);
+			var newChunk = new Chunk(end, chunks.size(), varTable.listView());
 
-				current = newChunk;
-				chunkMap.put(i, current);
+			if (instructions.get(end - 1).canStay()) {
+				current.setDirectChunk(newChunk);
 			}
 
-			current.addInstruction(instructions.get(i));
+			current.setEndIndex(end);
+
+			current = newChunk;
+			chunkByIndex[end] = current;
+			chunks.add(current);
 		}
 
-		current.setEndIndex(instructions.size());
+		current.setEndIndex(size);
 		this.last = current;
 
-		return chunkMap;
+		return chunkByIndex;
+	}
+
+	/** @return чанк, начинающийся на лейбле, или {@code null}, если на нём не начинается чанк. */
+	private @Nullable Chunk chunkAt(@Nullable Chunk[] chunkByIndex, Label label) {
+		return chunkByIndex[labels.getInt(label)];
 	}
 
 
@@ -507,13 +585,19 @@ public final class CodeGraph extends Code {
 		assert last != null;
 		int endId = last.getId();
 
-		Queue<Scope> scopeQueue = new LinkedList<>(scopes);
+		Scope[] sortedScopes = scopes.toArray(Scope[]::new);
+		int nextScope = 0;
 		Scope current = methodScope;
 
 		var generator = new LabelNameGenerator();
 
 		for (int id = 0; id <= endId; id++) {
-			current = current.startScopes(scopeQueue, id);
+			int startedScope = nextScope;
+			nextScope = current.startScopes(sortedScopes, nextScope, id);
+
+			if (nextScope > startedScope) {
+				current = sortedScopes[nextScope - 1];
+			}
 
 			var chunk = chunks.get(id);
 
@@ -545,6 +629,7 @@ public final class CodeGraph extends Code {
 		Int2IntMap loopChunkIds = new Int2IntOpenHashMap();
 
 		for (Chunk chunk : chunks) {
+			timeBudget.check();
 			Chunk jumpChunk = chunk.getConditionalChunk();
 
 			if (jumpChunk != null) {
@@ -563,7 +648,7 @@ public final class CodeGraph extends Code {
 	/* -------------------------------------------------- Switches -------------------------------------------------- */
 
 	/** Ищет все switch и case и добавляет их в список {@code scopes}. */
-	private void addSwitchScopes(List<Scope> scopes, @Unmodifiable List<Chunk> chunks, Int2ObjectMap<Chunk> chunkMap) {
+	private void addSwitchScopes(List<Scope> scopes, @Unmodifiable List<Chunk> chunks, @Nullable Chunk[] chunkByIndex) {
 		for (Chunk chunk : chunks) {
 			var switchOperation = chunk.getSwitchOperation();
 
@@ -573,13 +658,13 @@ public final class CodeGraph extends Code {
 
 				for (var entry : switchOperation.table().int2ObjectEntrySet()) {
 					table.computeIfAbsent(
-							chunkMap.get(labels.getInt(entry.getValue())),
+							chunkAt(chunkByIndex, entry.getValue()),
 							c -> new ArrayList<>()
 					).add(IntConstant.valueOf(entry.getIntKey()));
 				}
 
 				// Для блока default список констант всегда null
-				table.put(chunkMap.get(labels.getInt(switchOperation.defaultLabel())), null);
+				table.put(chunkAt(chunkByIndex, switchOperation.defaultLabel()), null);
 
 				var scopeOperation = createSwitchScope(switchOperation, chunks, table);
 
@@ -641,7 +726,7 @@ public final class CodeGraph extends Code {
 	 * @return Карту: ключ - id первого чанка, не включающего условие, значение - id чанка после if-а
 	 */
 	private Int2IntMap findIfs(@Unmodifiable List<Chunk> chunks) {
-		List<IfEntry> ifEntries = new LinkedList<>();
+		List<IfEntry> ifEntries = new ArrayList<>();
 
 		for (Chunk chunk : chunks) {
 			Chunk jumpChunk = chunk.getConditionalChunk();
@@ -661,12 +746,7 @@ public final class CodeGraph extends Code {
 			}
 		}
 
-		boolean result;
-
-		do {
-			result = collapseConditions(chunks, ifEntries);
-		} while (result);
-
+		collapseConditions(chunks, ifEntries);
 
 		return ifEntries.stream().collect(
 				Int2IntOpenHashMap::new,
@@ -691,52 +771,56 @@ public final class CodeGraph extends Code {
 
 
 	/**
-	 * Объединяет отдельные условия в "and" и "or" условия. Изменяет {@code ifEntries} в процессе.
-	 * @return {@code true}, если объединено хотя бы одно условие, иначе {@code false}.
+	 * Объединяет отдельные условия в "and" и "or" условия. Удаляет объединённые условия из {@code ifEntries}.
+	 * <p>
+	 * Условия перебираются по порядку, и каждое объединяется с предыдущими, пока это возможно.
+	 * Объединение меняет только начало условия, поэтому другие пары условий не затрагиваются
+	 * и проверять их заново не нужно - всё выполняется за один проход.
 	 */
-	private boolean collapseConditions(@Unmodifiable List<Chunk> chunks, List<IfEntry> ifEntries) {
-		for (var entry2 : ifEntries) {
-			var foundEntry = ifEntries.stream()
-					.filter(entry1 -> entry1 != entry2 && entry1.end + 1 == entry2.start).findAny();
+	private void collapseConditions(@Unmodifiable List<Chunk> chunks, List<IfEntry> ifEntries) {
+
+		// Ключ - индекс первого чанка после условия
+		Int2ObjectMap<IfEntry> entriesByEnd = new Int2ObjectOpenHashMap<>(ifEntries.size());
 
-			if (foundEntry.isPresent()) {
-				var entry1 = foundEntry.get();
+		for (var entry : ifEntries) {
+			entriesByEnd.put(entry.end, entry);
+		}
 
+		for (var entry2 : ifEntries) {
+			for (IfEntry entry1; (entry1 = entriesByEnd.get(entry2.start - 1)) != null; ) {
 				// Нашли "and" или "or"
-				if (entry1.jump == entry2.jump ||
-					entry1.jump == entry2.end) {
+				if (entry1.jump != entry2.jump &&
+					entry1.jump != entry2.end) break;
 
-					Chunk chunk1 = chunks.get(entry1.end - 1),
-						  chunk2 = chunks.get(entry2.end - 1);
+				Chunk chunk1 = chunks.get(entry1.end - 1),
+					  chunk2 = chunks.get(entry2.end - 1);
 
-					// Между условиями не должно быть другого кода
-					if (!chunk2.getOperations().isEmpty()) continue;
+				// Между условиями не должно быть другого кода
+				if (!chunk2.getOperations().isEmpty()) break;
 
-					// В IfScope условие инвертируется, поэтому "and" станет "or", и наоборот
+				// В IfScope условие инвертируется, поэтому "and" станет "or", и наоборот
 
-					if (entry1.jump == entry2.jump) { // and
-						chunk2.changeCondition(OperatorCondition.or(
-								chunk1.requireCondition(),
-								chunk2.requireCondition()
-						));
+				if (entry1.jump == entry2.jump) { // and
+					chunk2.changeCondition(OperatorCondition.or(
+							chunk1.requireCondition(),
+							chunk2.requireCondition()
+					));
 
-					} else { // or
-						chunk2.changeCondition(OperatorCondition.and(
-								chunk1.requireCondition().opposite(),
-								chunk2.requireCondition()
-						));
-					}
+				} else { // or
+					chunk2.changeCondition(OperatorCondition.and(
+							chunk1.requireCondition().opposite(),
+							chunk2.requireCondition()
+					));
+				}
 
-					chunk1.changeCondition(ConstCondition.FALSE);
+				chunk1.changeCondition(ConstCondition.FALSE);
 
-					entry2.start = entry1.start;
-					ifEntries.remove(entry1);
-					return true;
-				}
+				entry2.start = entry1.start;
+				entriesByEnd.remove(entry1.end);
 			}
 		}
 
-		return false;
+		ifEntries.removeIf(entry -> entriesByEnd.get(entry.end) != entry);
 	}
 
 
@@ -779,6 +863,7 @@ public final class CodeGraph extends Code {
 	public void beforeVariablesInit() {
 		var methodScope = getMethodScope();
 		methodScope.beforeVariablesInit(methodScope.getMethodContext(), methodScope);
+		timeBudget.check();
 		methodScope.checkCyclicReference();
 	}
 
@@ -790,7 +875,7 @@ public final class CodeGraph extends Code {
 
 	/** Инициализирует переменные в методе */
 	public void initVariables() {
-		getMethodScope().initVariables(visitor.getArgumentsSizes());
+		getMethodScope().initVariables(argumentsSizes);
 	}
 
 
@@ -2,6 +2,7 @@ package x590.newyava.decompilation.code;
 
 import it.unimi.dsi.fastutil.Pair;
 import it.unimi.dsi.fastutil.Stack;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.jetbrains.annotations.Nullable;
 import x590.newyava.decompilation.operation.other.DummyOperation;
 import x590.newyava.decompilation.operation.Operation;
@@ -10,23 +11,31 @@ import x590.newyava.exception.TypeSizeNotMatchesException;
 import x590.newyava.type.Type;
 import x590.newyava.type.TypeSize;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 
 public class CodeStack implements Stack<Operation> {
-	/** Состояние стека */
-	private Deque<Operation> stack = new LinkedList<>();
+	/** Состояние стека. Вершина стека - последний элемент.
+	 * Массив используется повторно для всех чанков метода. */
+	private final ObjectArrayList<Operation> stack = new ObjectArrayList<>();
 
 	/** Операции, которые были созданы при вызове метода {@link #pop()} на пустом стеке. */
 	private List<ProxyOperation> popped = new ArrayList<>();
 
 
-	/** Сбрасывает поле {@link #stack} и возвращает его предыдущее состояние. */
+	/** Очищает {@link #stack} и возвращает копию его предыдущего состояния,
+	 * где первый элемент - вершина стека. */
 	Deque<Operation> getAndResetPushedOperations() {
-		var result = stack;
-		stack = new LinkedList<>();
+		Deque<Operation> result = new ArrayDeque<>(stack.size());
+
+		for (Operation operation : stack) {
+			result.push(operation);
+		}
+
+		stack.clear();
 		return result;
 	}
 
@@ -41,7 +50,7 @@ public class CodeStack implements Stack<Operation> {
 
 	@Override
 	public void push(Operation operation) {
-		stack.push(operation);
+		stack.add(operation);
 	}
 
 	/**
@@ -126,7 +135,7 @@ public class CodeStack implements Stack<Operation> {
 	}
 
 	public @Nullable Operation peek() {
-		return stack.peek();
+		return stack.isEmpty() ? null : stack.top();
 	}
 
 	/** Не поддерживается */
@@ -139,6 +148,8 @@ public class CodeStack implements Stack<Operation> {
 
 	@Override
 	public String toString() {
-		return stack.toString();
+		var reversed = new ArrayList<>(stack);
+		Collections.reverse(reversed);
+		return reversed.toString();
 	}
 }
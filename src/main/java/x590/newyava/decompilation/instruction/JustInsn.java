@@ -1,7 +1,5 @@
 package x590.newyava.decompilation.instruction;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -29,15 +27,25 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.TypeSize;
 import x590.newyava.type.Types;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import static org.objectweb.asm.Opcodes.*;
 import static x590.newyava.decompilation.operation.operator.OperatorType.*;
 
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class JustInsn implements Instruction {
-	private static final Int2ObjectMap<JustInsn> CACHE = new Int2ObjectOpenHashMap<>();
+	/** Кеш инструкций, индекс - опкод. Заполняется лениво, без блокировок. */
+	private static final AtomicReferenceArray<JustInsn> CACHE = new AtomicReferenceArray<>(256);
 
 	public static JustInsn of(int opcode) {
-		return CACHE.computeIfAbsent(opcode, JustInsn::new);
+		var insn = CACHE.get(opcode);
+
+		if (insn != null)
+			return insn;
+
+		var newInsn = new JustInsn(opcode);
+		var witness = CACHE.compareAndExchange(opcode, null, newInsn);
+		return witness != null ? witness : newInsn;
 	}
 
 	@Getter
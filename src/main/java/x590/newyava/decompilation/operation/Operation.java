@@ -1,5 +1,7 @@
 package x590.newyava.decompilation.operation;
 
+import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableObject;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
@@ -20,6 +22,8 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public interface Operation extends Importable {
 
@@ -93,13 +97,13 @@ public interface Operation extends Importable {
 	/** @return {@code true} если операция или одна из вложенных операций использует
 	 * какие-либо локальные переменные (читает/записывает) */
 	default boolean usesAnyVariable() {
-		return getNestedOperations().stream().anyMatch(Operation::usesAnyVariable);
+		return anyNestedMatch(Operation::usesAnyVariable);
 	}
 
 	/** @return {@code true} если операция или одна из вложенных операций использует
 	 * указанную переменную (читает/записывает) */
 	default boolean usesVariable(Variable variable) {
-		return getNestedOperations().stream().anyMatch(operation -> operation.usesVariable(variable));
+		return anyNestedMatch(operation -> operation.usesVariable(variable));
 	}
 
 
@@ -108,17 +112,20 @@ public interface Operation extends Importable {
 	 * @apiNote возможно объединение с методом {@link Scope#afterDecompilation(MethodContext)} */
 	@MustBeInvokedByOverriders
 	default void beforeVariablesInit(Context context, @Nullable MethodScope methodScope) {
-		getNestedOperations().forEach(operation -> operation.beforeVariablesInit(context, methodScope));
+		forEachNested(operation -> operation.beforeVariablesInit(context, methodScope));
 	}
 
 
 	/** @return способ <b>первого</b> использования переменной в указанном слоте.
 	 * Если переменная не используется, то метод возвращает {@link VarUsage#NONE}. */
 	default VarUsage getVarUsage(int slotId) {
-		return getNestedOperations().stream()
-				.map(operation -> operation.getVarUsage(slotId))
-				.filter(varUsage -> varUsage != VarUsage.NONE)
-				.findFirst().orElse(VarUsage.NONE);
+		var result = new MutableObject<>(VarUsage.NONE);
+		anyNestedMatch(operation -> {
+			result.setValue(operation.getVarUsage(slotId));
+			return result.getValue() != VarUsage.NONE;
+		});
+
+		return result.getValue();
 	}
 
 
@@ -133,20 +140,20 @@ public interface Operation extends Importable {
 	 * @return {@code true}, если переменная была объявлена в данной операции, иначе {@code false}. */
 	@MustBeInvokedByOverriders
 	default boolean declareVariables() {
-		boolean result = false;
-
-		for (var operation : getNestedOperations()) {
-			result |= operation.declareVariables();
-		}
+		var result = new MutableBoolean();
+		forEachNested(operation -> {
+			if (operation.declareVariables())
+				result.setTrue();
+		});
 
-		return result;
+		return result.booleanValue();
 	}
 
 
 	/** Инициализирует возможные имена переменных */
 	@MustBeInvokedByOverriders
 	default void initPossibleVarNames() {
-		getNestedOperations().forEach(Operation::initPossibleVarNames);
+		forEachNested(Operation::initPossibleVarNames);
 	}
 
 
@@ -169,12 +176,12 @@ public interface Operation extends Importable {
 	 * Иными словами, по принципу "кто первый встал, того и тапки" */
 	@MustBeInvokedByOverriders
 	default boolean canUnite(MethodContext context, Operation prev) {
-		return getNestedOperations().stream().anyMatch(operation -> operation.canUnite(context, prev));
+		return anyNestedMatch(operation -> operation.canUnite(context, prev));
 	}
 
 	/** @return {@code true}, если операции необходимо пространство вокруг */
 	default boolean needEmptyLinesAround() {
-		return isScopeLike() || getNestedOperations().stream().anyMatch(Operation::needEmptyLinesAround);
+		return isScopeLike() || anyNestedMatch(Operation::needEmptyLinesAround);
 	}
 
 	/**
@@ -189,6 +196,32 @@ public interface Operation extends Importable {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Обходит вложенные операции в том же порядке, что и {@link #getNestedOperations()},
+	 * пока {@code visitor} не вернёт {@code true}. Все рекурсивные методы работают через него.
+	 * Операции, которые переопределяют {@link #getNestedOperations()} с созданием нового списка,
+	 * должны переопределять и этот метод, чтобы обход не создавал временных объектов.
+	 * @return {@code true}, если {@code visitor} вернул {@code true} для одной из вложенных операций.
+	 */
+	default boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		var operations = getNestedOperations();
+
+		for (int i = 0, s = operations.size(); i < s; i++) {
+			if (visitor.test(operations.get(i))) return true;
+		}
+
+		return false;
+	}
+
+	/** Вызывает {@code action} для всех вложенных операций в том же порядке,
+	 * что и {@link #getNestedOperations()}. */
+	default void forEachNested(Consumer<? super Operation> action) {
+		anyNestedMatch(operation -> {
+			action.accept(operation);
+			return false;
+		});
+	}
+
 
 	/* ---------------------------------------------- Another methods ----------------------------------------------- */
 
@@ -158,22 +158,26 @@ public final class OperationUtils {
 		if (!(operation instanceof FieldOperation fieldOp) || !fieldOp.isThisField()) return false;
 		if (!(fieldOp.getValue() instanceof ILoadOperation loadOp) || loadOp.getSlotId() != 1) return false;
 
-		var descriptor = fieldOp.getDescriptor();
-
-		if (descriptor.type().equals(context.getThisType().getOuter()) &&
-			SYNTHETIC_THIS_PATTERN.matcher(descriptor.name()).matches()) {
+		var foundField = context.findField(fieldOp.getDescriptor());
 
-			var foundField = context.findField(descriptor);
-
-			if (foundField.isPresent() && foundField.get().isSynthetic()) {
-				foundField.get().makeOuterInstance();
-				return true;
-			}
+		if (foundField.isPresent() && isOuterInstanceField(foundField.get(), context.getThisType())) {
+			foundField.get().makeOuterInstance();
+			return true;
 		}
 
 		return false;
 	}
 
+	/** @return {@code true}, если поле является синтетическим полем,
+	 * которое ссылается на экземпляр класса, внешнего для {@code thisType}. */
+	public static boolean isOuterInstanceField(DecompilingField field, ClassType thisType) {
+		var descriptor = field.getDescriptor();
+
+		return field.isSynthetic() &&
+				descriptor.type().equals(thisType.getOuter()) &&
+				SYNTHETIC_THIS_PATTERN.matcher(descriptor.name()).matches();
+	}
+
 
 	/**
 	 * Проверяет, что операция является инициализацией синтетического поля, которое ссылается на
@@ -14,6 +14,7 @@ import x590.newyava.type.Types;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 @Getter
 @EqualsAndHashCode
@@ -45,6 +46,11 @@ public class ArrayLengthOperation implements Operation {
 		return List.of(array);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(array);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(array);
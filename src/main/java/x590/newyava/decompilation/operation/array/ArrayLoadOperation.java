@@ -14,6 +14,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class ArrayLoadOperation implements Operation {
@@ -58,6 +59,11 @@ public class ArrayLoadOperation implements Operation {
 		return List.of(array, index);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(array) || visitor.test(index);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(array).addImportsFor(index);
@@ -17,6 +17,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode(callSuper = true)
 public class ArrayStoreOperation extends AssignOperation {
@@ -73,6 +74,11 @@ public class ArrayStoreOperation extends AssignOperation {
 		return List.of(array, index, requireValue());
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(array) || visitor.test(index) || visitor.test(requireValue());
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		super.addImports(context);
@@ -24,6 +24,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class NewArrayOperation implements Operation {
@@ -129,6 +130,21 @@ public class NewArrayOperation implements Operation {
 		return operations;
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		for (Operation size : sizes) {
+			if (visitor.test(size)) return true;
+		}
+
+		if (initializers != null) {
+			for (Operation initializer : initializers) {
+				if (visitor.test(initializer)) return true;
+			}
+		}
+
+		return false;
+	}
+
 	@Override
 	public Priority getPriority() {
 		return Priority.NEW;
@@ -10,6 +10,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @Getter
 @EqualsAndHashCode
@@ -40,6 +41,11 @@ public class CmpOperation implements SpecialOperation {
 		return List.of(operand1, operand2);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(operand1) || visitor.test(operand2);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("CmpOperation(%s %s)", operand1, operand2);
@@ -18,6 +18,7 @@ import x590.newyava.type.Type;
 import x590.newyava.type.Types;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 @RequiredArgsConstructor
@@ -120,6 +121,11 @@ public class CompareCondition implements Condition {
 		return List.of(operand1, operand2);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(operand1) || visitor.test(operand2);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(operand1).addImportsFor(operand2);
@@ -15,6 +15,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @Getter
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -49,6 +50,11 @@ public class IfOperation extends JumpOperation {
 		return List.of(condition);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(condition);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(condition);
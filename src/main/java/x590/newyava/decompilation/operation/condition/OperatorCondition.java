@@ -13,6 +13,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @Getter
 @EqualsAndHashCode
@@ -55,6 +56,11 @@ public class OperatorCondition implements Condition {
 		return List.of(operand1, operand2);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(operand1) || visitor.test(operand2);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(operand1).addImportsFor(operand2);
@@ -9,6 +9,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public record SwitchOperation(Operation value, Int2ObjectMap<Label> table, Label defaultLabel)
 		implements SpecialOperation {
@@ -27,6 +28,11 @@ public record SwitchOperation(Operation value, Int2ObjectMap<Label> table, Label
 		return List.of(value);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(value);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("SwitchOperation(table: %s, default: %s)", table, defaultLabel);
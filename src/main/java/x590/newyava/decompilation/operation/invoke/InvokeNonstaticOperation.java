@@ -16,6 +16,7 @@ import x590.newyava.util.Utils;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @EqualsAndHashCode(callSuper = true)
@@ -40,6 +41,11 @@ public abstract class InvokeNonstaticOperation extends InvokeOperation {
 		return Utils.addBefore(object, super.getNestedOperations());
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(object) || super.anyNestedMatch(visitor);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		super.addImports(context);
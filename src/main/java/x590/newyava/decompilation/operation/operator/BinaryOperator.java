@@ -17,6 +17,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class BinaryOperator implements Operation {
@@ -98,6 +99,11 @@ public class BinaryOperator implements Operation {
 		return List.of(operand1, operand2);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(operand1) || visitor.test(operand2);
+	}
+
 	@Override
 	public Priority getPriority() {
 		return operatorType.getPriority();
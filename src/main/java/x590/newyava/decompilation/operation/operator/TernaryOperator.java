@@ -16,6 +16,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class TernaryOperator implements Operation {
@@ -83,6 +84,11 @@ public class TernaryOperator implements Operation {
 		return List.of(condition, operand1, operand2);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(condition) || visitor.test(operand1) || visitor.test(operand2);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(condition).addImportsFor(operand1).addImportsFor(operand2);
@@ -11,6 +11,7 @@ import x590.newyava.io.DecompilationWriter;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class UnaryOperator implements Operation {
@@ -43,6 +44,11 @@ public class UnaryOperator implements Operation {
 		return List.of(operand);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(operand);
+	}
+
 	@Override
 	public Priority getPriority() {
 		return Priority.UNARY;
@@ -18,6 +18,7 @@ import x590.newyava.type.Type;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 @RequiredArgsConstructor
@@ -102,6 +103,11 @@ public class CastOperation implements Operation {
 		return List.of(operand);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(operand);
+	}
+
 	@Override
 	public Priority getPriority() {
 		return canOmitCast() ? operand.getPriority() : Priority.CAST;
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Операция записи/чтения поля из объекта/класса
@@ -182,6 +183,12 @@ public class FieldOperation extends AssignOperation {
 		return operations;
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return value != null && visitor.test(value) ||
+				instance != null && visitor.test(instance);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		super.addImports(context);
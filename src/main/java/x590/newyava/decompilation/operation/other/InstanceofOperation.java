@@ -11,6 +11,7 @@ import x590.newyava.io.DecompilationWriter;
 import x590.newyava.type.*;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class InstanceofOperation implements Operation {
@@ -37,6 +38,11 @@ public class InstanceofOperation implements Operation {
 		return List.of(value);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(value);
+	}
+
 	@Override
 	public Priority getPriority() {
 		return Priority.INSTANCEOF;
@@ -15,6 +15,7 @@ import x590.newyava.type.TypeSize;
 import x590.newyava.type.Types;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @Getter
 @EqualsAndHashCode
@@ -42,6 +43,11 @@ public class PopOperation implements Operation {
 		return List.of(value);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(value);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(value);
@@ -20,6 +20,7 @@ import x590.newyava.type.Type;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 @AllArgsConstructor
@@ -119,6 +120,11 @@ public class ProxyOperation implements Operation {
 		return List.of(operation);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(operation);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		operation.addImports(context);
@@ -13,6 +13,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class ReturnValueOperation implements ReturnOperation {
@@ -42,6 +43,11 @@ public class ReturnValueOperation implements ReturnOperation {
 		return List.of(value);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(value);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(value);
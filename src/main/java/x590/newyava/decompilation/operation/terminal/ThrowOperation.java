@@ -14,6 +14,7 @@ import x590.newyava.type.PrimitiveType;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode
 public class ThrowOperation implements TerminalOperation {
@@ -44,6 +45,11 @@ public class ThrowOperation implements TerminalOperation {
 		return List.of(exception);
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(exception);
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		context.addImportsFor(exception);
@@ -15,6 +15,7 @@ import x590.newyava.io.DecompilationWriter;
 import x590.newyava.type.Type;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 @EqualsAndHashCode(callSuper = true)
 public class StoreOperation extends AssignOperation {
@@ -96,6 +97,11 @@ public class StoreOperation extends AssignOperation {
 		return List.of(requireValue());
 	}
 
+	@Override
+	public boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		return visitor.test(requireValue());
+	}
+
 	@Override
 	public void addImports(ClassContext context) {
 		super.addImports(context);
@@ -156,6 +156,21 @@ public non-sealed class Scope implements EmptyableScopeOperation, Comparable<Sco
 				Utils.addBefore(headerOperation, operationsView);
 	}
 
+	/** Обходит операцию в заголовке (если есть), а затем все операции внутри scope. */
+	@Override
+	public final boolean anyNestedMatch(Predicate<? super Operation> visitor) {
+		var headerOperation = getHeaderOperation();
+
+		if (headerOperation != null && visitor.test(headerOperation))
+			return true;
+
+		for (int i = 0, s = operations.size(); i < s; i++) {
+			if (visitor.test(operations.get(i))) return true;
+		}
+
+		return false;
+	}
+
 	/** @return операцию в заголовке scope или {@code null}, если её нет.
 	 * По умолчанию возвращает {@code null}. */
 	protected @Nullable Operation getHeaderOperation() {
@@ -200,33 +215,39 @@ public non-sealed class Scope implements EmptyableScopeOperation, Comparable<Sco
 	 * Начинает все scope-ы, до которых дошла очередь.
 	 * Если вложенный scope выходит за границы текущего и метод {@link #canShrink()} возвращает {@code true},
 	 * то вложенный scope будет уменьшен до этих границ.
-	 * @param scopeQueue очередь {@link Scope}-ов, должна быть отсортирована по возрастанию.
+	 * @param sortedScopes массив {@link Scope}-ов, отсортированный по возрастанию.
+	 * @param nextIndex индекс первого ещё не начатого scope в {@code sortedScopes}.
 	 * @param currentId текущий id чанка.
+	 * @return индекс первого не начатого scope после вызова. Каждый начатый scope вложен
+	 * в предыдущий, поэтому самый вложенный из них находится перед этим индексом.
 	 */
-	public final Scope startScopes(Queue<Scope> scopeQueue, int currentId) {
-		var scope = scopeQueue.peek();
+	public final int startScopes(Scope[] sortedScopes, int nextIndex, int currentId) {
+		Scope current = this;
 
-		if (scope != null && scope.getStartChunk().getId() == currentId) {
-			scopeQueue.poll();
+		for (; nextIndex < sortedScopes.length; nextIndex++) {
+			var scope = sortedScopes[nextIndex];
 
-			operations.add(scope);
-			scopes.add(scope);
+			if (scope.getStartChunk().getId() != currentId)
+				break;
 
-			scope.parent = this;
+			current.operations.add(scope);
+			current.scopes.add(scope);
 
-			int diff = scope.endChunk.getId() - this.endChunk.getId();
+			scope.parent = current;
+
+			int diff = scope.endChunk.getId() - current.endChunk.getId();
 
 			if (diff > 0 && scope.canShrink()) {
 				scope.chunks = scope.chunks.subList(0, scope.chunks.size() - diff);
-				scope.endChunk = this.endChunk;
+				scope.endChunk = current.endChunk;
 			}
 
 			scope.onStart();
 
-			return scope.startScopes(scopeQueue, currentId);
+			current = scope;
 		}
 
-		return this;
+		return nextIndex;
 	}
 
 	/** Завершает все текущие scope-ы, если они достигли конца */
@@ -292,6 +313,8 @@ public non-sealed class Scope implements EmptyableScopeOperation, Comparable<Sco
 	protected void findVarsOwners(Int2ObjectMap<List<VarOwner>> ownersMap) {
 		scopes.forEach(scope -> scope.findVarsOwners(ownersMap));
 
+		var nestedOperations = getNestedOperations();
+
 		for (int slotId : ownersMap.keySet()) {
 			var owners = ownersMap.get(slotId);
 
@@ -304,7 +327,7 @@ public non-sealed class Scope implements EmptyableScopeOperation, Comparable<Sco
 			// Если true, то данную переменную необходимо объявить в текущем scope
 			boolean needDefine = false;
 
-			for (Operation operation : getNestedOperations()) {
+			for (Operation operation : nestedOperations) {
 				var scope = operation instanceof Scope ? (Scope) operation : null;
 
 				if (scope != null) {
@@ -0,0 +1,12 @@
+package x590.newyava.exception;
+
+/**
+ * Исключение при превышении бюджета времени декомпиляции метода или класса.
+ * @see x590.newyava.TimeBudget
+ */
+public class DecompilationTimeoutException extends DecompilationException {
+
+	public DecompilationTimeoutException(String message) {
+		super(message);
+	}
+}
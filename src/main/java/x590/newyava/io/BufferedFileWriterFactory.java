@@ -1,27 +1,83 @@
 package x590.newyava.io;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Записывает каждый класс в отдельный файл {@code <directory>/<package>/<ClassName>.java}.
+ * Содержимое файла собирается в памяти, кодируется в UTF-8 один раз и записывается
+ * одним вызовом {@link FileChannel#write(ByteBuffer)}.
+ * Созданные директории запоминаются, поэтому для классов одного пакета они создаются только один раз.
+ * Потокобезопасна: разные классы можно записывать параллельно.
+ */
 public class BufferedFileWriterFactory implements WriterFactory {
-	private final String directory;
+	private final Path directory;
+
+	/** Директории, которые уже созданы. */
+	private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
 
 	public BufferedFileWriterFactory(String directory) {
-		this.directory = directory.endsWith("/") ? directory : directory + "/";
+		this(Path.of(directory));
+	}
+
+	public BufferedFileWriterFactory(Path directory) {
+		this.directory = directory;
 	}
 
 	@Override
-	public Writer getWriter(String className) throws IOException {
-		String javaFile = directory + className.replace('.', '/') + ".java";
-		Files.createDirectories(Paths.get(javaFile).getParent());
-		return new FileWriter(javaFile);
+	public Writer getWriter(String className) {
+		return new FileBuffer(getFile(className));
+	}
+
+	@Override
+	public void removeClass(String className) throws IOException {
+		Files.deleteIfExists(getFile(className));
+	}
+
+	private Path getFile(String className) {
+		return directory.resolve(className.replace('.', '/') + ".java");
 	}
 
 	@Override
 	public void closeWriter(Writer writer) throws IOException {
-		writer.close();
+		var buffer = (FileBuffer)writer;
+		var file = buffer.file;
+
+		createDirectories(file.getParent());
+
+		ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(buffer.getContent()));
+
+		try (var channel = FileChannel.open(file, WRITE, CREATE, TRUNCATE_EXISTING)) {
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		}
+	}
+
+	private void createDirectories(Path dir) throws IOException {
+		if (!createdDirectories.contains(dir)) {
+			Files.createDirectories(dir);
+			createdDirectories.add(dir);
+		}
+	}
+
+
+	/** Накапливает содержимое файла в памяти. Сам файл записывается в {@link #closeWriter(Writer)}. */
+	private static final class FileBuffer extends StringBuilderWriter {
+		private final Path file;
+
+		private FileBuffer(Path file) {
+			this.file = file;
+		}
 	}
 }
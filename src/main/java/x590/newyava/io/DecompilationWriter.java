@@ -21,23 +21,41 @@ import java.util.function.ObjIntConsumer;
 
 public class DecompilationWriter extends Writer {
 
-	private final WriterFactory writerFactory;
+	private final @Nullable WriterFactory writerFactory;
 
 	private @Nullable Writer out;
 
+	/** Количество символов, записанных с момента последнего вызова {@link #openWriter(String)}. */
+	private long writtenLength;
+
 	public DecompilationWriter(WriterFactory factory, Config config) {
 		this.writerFactory = factory;
 		this.singleIndent = config.getIndent();
 	}
 
+	/** Создаёт объект, который записывает весь текст в {@code out}.
+	 * Методы {@link #openWriter(String)} и {@link #closeWriter()} для него не поддерживаются. */
+	public DecompilationWriter(Writer out, Config config) {
+		this.writerFactory = null;
+		this.out = out;
+		this.singleIndent = config.getIndent();
+	}
+
 	public void openWriter(String className) throws IOException {
-		out = writerFactory.getWriter(className);
+		out = getWriterFactory().getWriter(className);
+		writtenLength = 0;
+	}
+
+	/** @return количество символов, записанных с момента последнего вызова {@link #openWriter(String)}
+	 * или с момента создания. */
+	public long getWrittenLength() {
+		return writtenLength;
 	}
 
 	public void closeWriter() throws IOException {
 		if (out != null) {
 			try {
-				writerFactory.closeWriter(out);
+				getWriterFactory().closeWriter(out);
 			} finally {
 				out = null;
 			}
@@ -106,6 +124,7 @@ public class DecompilationWriter extends Writer {
 	@Override
 	public void write(char[] buffer, int off, int len) throws IOException {
 		Objects.requireNonNull(out).write(buffer, off, len);
+		writtenLength += len;
 	}
 
 	/* --------------------------------------------------- record --------------------------------------------------- */
@@ -113,6 +132,7 @@ public class DecompilationWriter extends Writer {
 	public DecompilationWriter record(char ch) {
 		try {
 			Objects.requireNonNull(out).write(ch);
+			writtenLength += 1;
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
 		}
@@ -123,6 +143,7 @@ public class DecompilationWriter extends Writer {
 	public DecompilationWriter record(String str) {
 		try {
 			Objects.requireNonNull(out).write(str);
+			writtenLength += str.length();
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
 		}
@@ -340,7 +361,17 @@ public class DecompilationWriter extends Writer {
 
 	@Override
 	public void close() throws IOException {
-		writerFactory.close();
+		if (writerFactory != null) {
+			writerFactory.close();
+		}
+
 		out = null;
 	}
+
+	private WriterFactory getWriterFactory() {
+		if (writerFactory == null)
+			throw new UnsupportedOperationException("DecompilationWriter has no WriterFactory");
+
+		return writerFactory;
+	}
 }
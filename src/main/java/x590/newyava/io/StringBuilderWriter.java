@@ -0,0 +1,67 @@
+package x590.newyava.io;
+
+import java.io.Writer;
+
+/**
+ * {@link Writer}, который накапливает весь текст в {@link StringBuilder}.
+ * В отличие от {@link java.io.StringWriter}, не синхронизирован.
+ */
+public class StringBuilderWriter extends Writer {
+	private final StringBuilder content;
+
+	public StringBuilderWriter() {
+		this(8192);
+	}
+
+	public StringBuilderWriter(int capacity) {
+		this.content = new StringBuilder(capacity);
+	}
+
+	/** @return накопленный текст. Не копируется, поэтому не должен изменяться. */
+	public CharSequence getContent() {
+		return content;
+	}
+
+	@Override
+	public void write(int ch) {
+		content.append((char)ch);
+	}
+
+	@Override
+	public void write(String str) {
+		content.append(str);
+	}
+
+	@Override
+	public void write(String str, int off, int len) {
+		content.append(str, off, off + len);
+	}
+
+	@Override
+	public void write(char[] buffer, int off, int len) {
+		content.append(buffer, off, len);
+	}
+
+	@Override
+	public Writer append(CharSequence csq) {
+		content.append(csq);
+		return this;
+	}
+
+	@Override
+	public Writer append(char ch) {
+		content.append(ch);
+		return this;
+	}
+
+	@Override
+	public void flush() {}
+
+	@Override
+	public void close() {}
+
+	@Override
+	public String toString() {
+		return content.toString();
+	}
+}
@@ -17,9 +17,19 @@ public interface WriterFactory {
 	/**
 	 * Вызывается после записи класса, служит для освобождения ресурсов {@link Writer}-а,
 	 * полученного из метода {@link #getWriter(String)}.
+	 * Также вызывается, если при записи класса возникло исключение:
+	 * в этом случае {@link Writer} содержит текст, записанный до исключения.
 	 */
 	void closeWriter(Writer writer) throws IOException;
 
+	/**
+	 * Вызывается при инкрементальной декомпиляции, когда класса верхнего уровня больше нет во входных данных.
+	 * Служит для удаления записанного ранее класса. По умолчанию ничего не делает.
+	 * @param className имя класса в формате {@code "java.lang.Object"}.
+	 * @see x590.newyava.IncrementalDecompiler
+	 */
+	default void removeClass(String className) throws IOException {}
+
 	/**
 	 * Вызывается после записи всех классов, служит для освобождения всех ресурсов данной фабрики.
 	 */
@@ -0,0 +1,192 @@
+package x590.newyava.io;
+
+import com.google.common.base.Throwables;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Записывает все классы в один zip-архив (например, {@code -sources.jar}),
+ * каждый класс верхнего уровня - в запись {@code <package>/<ClassName>.java}.
+ * Текст класса собирается в памяти, а кодирование и сжатие выполняются в отдельном потоке,
+ * поэтому поток, записывающий классы, не ждёт сжатия.
+ * Количество классов, ожидающих сжатия, ограничено, чтобы не переполнять память.
+ * Центральный каталог архива записывается один раз в {@link #close()}.
+ * Если при сжатии возникло исключение, то центральный каталог не записывается,
+ * а архив, созданный по пути, удаляется.
+ */
+public class ZipWriterFactory implements WriterFactory {
+
+	/** Максимальное количество классов, ожидающих сжатия, по умолчанию. */
+	public static final int DEFAULT_MAX_PENDING = 64;
+
+	/** Поток, в который записывается архив. */
+	private final OutputStream out;
+
+	/** Файл архива. Удаляется, если архив не удалось записать. */
+	private final @Nullable Path zipFile;
+
+	private final ZipOutputStream zipOut;
+
+	/** Однопоточный исполнитель, так как {@link ZipOutputStream} записывает записи последовательно. */
+	private final ExecutorService compressor = Executors.newSingleThreadExecutor(runnable -> {
+		var thread = new Thread(runnable, "zip-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Semaphore pending;
+
+	/** Первое исключение, возникшее при сжатии. Пробрасывается из {@link #closeWriter(Writer)} или {@link #close()}. */
+	private volatile @Nullable Throwable exception;
+
+	public ZipWriterFactory(Path zipFile) throws IOException {
+		this(Files.newOutputStream(zipFile), zipFile, DEFAULT_MAX_PENDING);
+	}
+
+	/** Поток закрывается при вызове {@link #close()}. */
+	public ZipWriterFactory(OutputStream out) {
+		this(out, DEFAULT_MAX_PENDING);
+	}
+
+	/**
+	 * @param out поток, в который записывается архив. Закрывается при вызове {@link #close()}.
+	 * @param maxPending максимальное количество классов, ожидающих сжатия.
+	 */
+	public ZipWriterFactory(OutputStream out, int maxPending) {
+		this(out, null, maxPending);
+	}
+
+	private ZipWriterFactory(OutputStream out, @Nullable Path zipFile, int maxPending) {
+		if (maxPending <= 0)
+			throw new IllegalArgumentException("maxPending must be positive: " + maxPending);
+
+		this.out = out;
+		this.zipFile = zipFile;
+		this.zipOut = new ZipOutputStream(new BufferedOutputStream(out, 65536), StandardCharsets.UTF_8);
+		this.pending = new Semaphore(maxPending);
+	}
+
+	@Override
+	public Writer getWriter(String className) throws IOException {
+		checkException();
+		return new EntryBuffer(className.replace('.', '/') + ".java");
+	}
+
+	@Override
+	public void closeWriter(Writer writer) throws IOException {
+		checkException();
+
+		var buffer = (EntryBuffer)writer;
+
+		try {
+			pending.acquire();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for compression");
+		}
+
+		compressor.execute(() -> {
+			try {
+				if (exception == null) {
+					writeEntry(buffer);
+				}
+			} catch (Throwable throwable) {
+				exception = throwable;
+			} finally {
+				pending.release();
+			}
+		});
+	}
+
+	private void writeEntry(EntryBuffer buffer) throws IOException {
+		ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(buffer.getContent()));
+
+		zipOut.putNextEntry(new ZipEntry(buffer.entryName));
+		zipOut.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+		zipOut.closeEntry();
+	}
+
+	private void checkException() throws IOException {
+		var exception = this.exception;
+
+		if (exception != null) {
+			Throwables.throwIfInstanceOf(exception, IOException.class);
+			Throwables.throwIfUnchecked(exception);
+			throw new IOException(exception);
+		}
+	}
+
+	/**
+	 * Дожидается сжатия всех классов, записывает центральный каталог и закрывает архив.
+	 * Если при сжатии или записи возникло исключение или ожидание прервано, то закрывает поток
+	 * без записи центрального каталога и пробрасывает исключение.
+	 */
+	@Override
+	public void close() throws IOException {
+		compressor.shutdown();
+
+		try {
+			while (!compressor.awaitTermination(1, TimeUnit.MINUTES)) {
+				// Ждём, пока все записи не будут сжаты
+			}
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			compressor.shutdownNow();
+
+			var interrupted = new InterruptedIOException("Interrupted while waiting for compression");
+			discard(interrupted);
+			throw interrupted;
+		}
+
+		try {
+			checkException();
+			zipOut.close();
+
+		} catch (Throwable throwable) {
+			discard(throwable);
+			throw throwable;
+		}
+	}
+
+	/** Закрывает поток, не записывая центральный каталог, и удаляет файл архива, если он есть.
+	 * Исключения добавляются к {@code throwable} как подавленные. */
+	private void discard(Throwable throwable) {
+		try {
+			out.close();
+
+			if (zipFile != null) {
+				Files.deleteIfExists(zipFile);
+			}
+
+		} catch (IOException ex) {
+			throwable.addSuppressed(ex);
+		}
+	}
+
+
+	/** Накапливает текст класса в памяти. Сама запись архива создаётся в потоке сжатия. */
+	private static final class EntryBuffer extends StringBuilderWriter {
+		private final String entryName;
+
+		private EntryBuffer(String entryName) {
+			this.entryName = entryName;
+		}
+	}
+}
@@ -9,10 +9,10 @@ import x590.newyava.context.Context;
 import x590.newyava.io.DecompilationWriter;
 import x590.newyava.io.SignatureReader;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Массив какого-либо другого типа.
@@ -20,7 +20,8 @@ import java.util.Objects;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public final class ArrayType implements IClassArrayType {
 
-	private static final Map<Type, ArrayType> ARRAYS_POOL = new HashMap<>();
+	/** Пул одномерных массивов. Потокобезопасен, так как массивы создаются из нескольких потоков. */
+	private static final Map<Type, ArrayType> ARRAYS_POOL = new ConcurrentHashMap<>();
 
 	private static final @Unmodifiable List<ClassType> INTERFACES =
 			List.of(ClassType.COMPARABLE, ClassType.SERIALIZABLE);
@@ -16,6 +16,7 @@ import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Repeatable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Это <b>класс</b>ика Java!
@@ -23,8 +24,12 @@ import java.util.*;
 @Getter
 public final class ClassType implements IClassType {
 
-	private static final Map<String, ClassType> CLASS_POOL = new HashMap<>();
-	private static final Map<String, String> OUTER_CLASS_NAMES_POOL = new HashMap<>();
+	/** Пул всех классов. Потокобезопасен, так как классы создаются из нескольких потоков. */
+	private static final Map<String, ClassType> CLASS_POOL = new ConcurrentHashMap<>();
+
+	/** Блокировка для изменения иерархии вложенных классов.
+	 * Берётся только при первой установке внешнего класса. */
+	private static final Object NESTING_LOCK = new Object();
 
 	public static final ClassType
 			OBJECT = valueOf(Object.class),
@@ -59,23 +64,25 @@ public final class ClassType implements IClassType {
 	/** Бинарное имя класса, например {@code "Object"} или {@code "Map$Entry"} */
 	private final String simpleBinName;
 
-	/** Полное имя класса, например {@code "java.lang.Object"} или {@code "java.util.Map.Entry"} */
-	private String name;
+	/** Полное имя класса, например {@code "java.lang.Object"} или {@code "java.util.Map.Entry"}.
+	 * Изменяется при установке внешнего класса. Здесь и далее изменяемые поля объявлены как {@code volatile},
+	 * так как один и тот же объект читается из нескольких потоков декомпиляции. */
+	private volatile String name;
 
 	/** Имя класса, например {@code "Object"}. Для вложенных классов включает
 	 * только имя самого класса без имени внешнего класса. */
-	private String simpleName;
+	private volatile String simpleName;
 
 	/** Имя пакета класса, например {@code "java.lang"} */
 	private final String packageName;
 
-	private boolean isEnclosedInMethod, isAnonymous;
+	private volatile boolean isEnclosedInMethod, isAnonymous;
 
-	private @Nullable ClassType outer;
+	private volatile @Nullable ClassType outer;
 	private @Nullable Set<ClassType> innerClasses;
 
-	private @Nullable ClassType superClass;
-	private @Nullable @Unmodifiable List<ClassType> interfaces;
+	private volatile @Nullable ClassType superClass;
+	private volatile @Nullable @Unmodifiable List<ClassType> interfaces;
 
 	private ClassType(String classBinName) {
 		if (!isValidName(classBinName)) {
@@ -173,6 +180,23 @@ public final class ClassType implements IClassType {
 		return classType;
 	}
 
+	/**
+	 * Принимает бинарные имена класса, его суперкласса и интерфейсов в том виде,
+	 * в котором они записаны в class-файле.
+	 * @return {@link ClassType}, соответствующий классу, с инициализированными суперклассом и интерфейсами.
+	 * @throws DecompilationException если суперкласс или интерфейсы уже инициализированы другими значениями.
+	 */
+	public static ClassType valueOf(String classBinName, @Nullable String superName, String[] interfaceNames) {
+		var classType = valueOf(classBinName);
+
+		classType.checkOrUpdateSuper(superName == null ? null : valueOf(superName));
+		classType.checkOrUpdateInterfaces(
+				Arrays.stream(interfaceNames).map(ClassType::valueOf).toList()
+		);
+
+		return classType;
+	}
+
 	/** @return {@code null}, если переданный класс равен {@code null}.
 	 * Иначе - результат вызова {@link #valueOf(Class)}. */
 	private static @Nullable ClassType valueOfNullable(@Nullable Class<?> clazz) {
@@ -253,7 +277,7 @@ public final class ClassType implements IClassType {
 	}
 
 
-	private void checkOrUpdateSuper(@Nullable ClassType superClass) {
+	private synchronized void checkOrUpdateSuper(@Nullable ClassType superClass) {
 		if (superClass == null) {
 			return;
 		}
@@ -269,7 +293,7 @@ public final class ClassType implements IClassType {
 		}
 	}
 
-	private void checkOrUpdateInterfaces(@Unmodifiable List<ClassType> interfaces) {
+	private synchronized void checkOrUpdateInterfaces(@Unmodifiable List<ClassType> interfaces) {
 		if (this.interfaces == null) {
 			this.interfaces = interfaces;
 
@@ -301,16 +325,26 @@ public final class ClassType implements IClassType {
 	}
 
 	private void checkOrUpdateOuter(String outerName, boolean isEnclosedInMethod) {
-		if (outer != null) {
-			if (outer.classBinName.equals(outerName)) {
-				return;
+		var outer = this.outer;
+
+		if (outer == null) {
+			synchronized (NESTING_LOCK) {
+				if (this.outer == null) {
+					initOuter(valueOf(outerName), isEnclosedInMethod);
+					return;
+				}
+
+				outer = this.outer;
 			}
+		}
 
+		if (!outer.classBinName.equals(outerName)) {
 			throw new DecompilationException("Class %s gets another outer class %s", this, outerName);
 		}
+	}
 
-		outer = valueOf(outerName);
-
+	/** Инициализирует внешний класс. Должен вызываться только под {@link #NESTING_LOCK}. */
+	private void initOuter(ClassType outer, boolean isEnclosedInMethod) {
 		var thisBinSN = this.simpleBinName;
 		var outerBinSN = outer.simpleBinName;
 
@@ -322,8 +356,15 @@ public final class ClassType implements IClassType {
 			this.isEnclosedInMethod = isEnclosedInMethod;
 			this.isAnonymous = isEnclosedInMethod && StringUtils.isNumeric(simpleName);
 
+			// Имя вычисляется по переданному внешнему классу, так как он ещё не опубликован
+			this.name = outer.getName() + '.' + simpleName;
+
+			// Публикуем внешний класс после остальных полей, чтобы поток,
+			// увидевший его, увидел и имя, и признаки вложенного класса
+			this.outer = outer;
+
 			outer.addInnerClass(this);
-			updateName();
+			updateInnerNames();
 
 		} else {
 			throw new DecompilationException("Class %s has illegal outer class %s", this, outer);
@@ -360,7 +401,10 @@ public final class ClassType implements IClassType {
 	private void updateName() {
 		assert outer != null;
 		name = outer.getName() + '.' + simpleName;
+		updateInnerNames();
+	}
 
+	private void updateInnerNames() {
 		if (innerClasses != null)
 			innerClasses.forEach(ClassType::updateName);
 	}
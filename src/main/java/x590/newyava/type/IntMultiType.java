@@ -1,7 +1,5 @@
 package x590.newyava.type;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.intellij.lang.annotations.MagicConstant;
@@ -9,6 +7,8 @@ import org.jetbrains.annotations.Nullable;
 import x590.newyava.context.Context;
 import x590.newyava.io.DecompilationWriter;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Суперпозиция типов, которые обрабатываются как int: boolean, byte, short, char, int.
  * Все экземпляры этого класса кешируются, поэтому можно сравнивать типы напрямую.
@@ -26,7 +26,8 @@ public final class IntMultiType implements PrimitiveType {
 			ALL_FLAGS = NUMERIC_FLAGS | BOOLEAN_FLAG;
 
 
-	private static final Int2ObjectMap<IntMultiType> TYPE_POOL = new Int2ObjectOpenHashMap<>();
+	/** Пул всех типов, индекс - набор флагов. Заполняется лениво, без блокировок. */
+	private static final AtomicReferenceArray<IntMultiType> TYPE_POOL = new AtomicReferenceArray<>(ALL_FLAGS + 1);
 
 	public static IntMultiType valueOf(@MagicConstant(flagsFromClass = IntMultiType.class) int flags) {
 		if ((flags & ~ALL_FLAGS) != 0)
@@ -34,8 +35,17 @@ public final class IntMultiType implements PrimitiveType {
 
 		if (flags == 0)
 			throw new IllegalArgumentException("No one flag set");
-		
-		return TYPE_POOL.computeIfAbsent(flags, IntMultiType::new);
+
+		var type = TYPE_POOL.get(flags);
+
+		if (type != null)
+			return type;
+
+		var newType = new IntMultiType(flags);
+
+		// Если другой поток успел создать тип раньше, то берём его экземпляр
+		var witness = TYPE_POOL.compareAndExchange(flags, null, newType);
+		return witness != null ? witness : newType;
 	}
 
 
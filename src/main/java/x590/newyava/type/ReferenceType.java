@@ -10,7 +10,6 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 
 public interface ReferenceType extends Type {
 
@@ -72,15 +71,9 @@ public interface ReferenceType extends Type {
 			return type == null ? null : ArrayType.forType(type, nest);
 		}
 
-		var superType = givenType.getSuperType();
-		if (superType == null) return givenType;
-
-		var result = assignQuiet(superType, requiredType);
-		if (result != null) return result;
-
-		return givenType.getInterfaces().stream()
-				.map(interf -> assignQuiet(interf, requiredType))
-				.filter(Objects::nonNull).findAny().orElse(null);
+		// Иерархия известна только для части классов и зависит от того, какие классы уже загружены.
+		// Чтобы результат декомпиляции от этого не зависел, считаем, что тип подходит.
+		return givenType;
 	}
 
 	static ReferenceType valueOf(String typeName) {
@@ -0,0 +1,18 @@
+package x590.newyava.example.nested;
+
+import org.junit.Test;
+import x590.newyava.example.Main;
+
+@SuppressWarnings("all")
+public class OuterInstanceExample {
+
+	@Test
+	public void run() {
+		Main.run(this);
+	}
+
+	public Object create(NonstaticNestedClassExample outer) {
+		var middle = outer.new Middle();
+		return middle.new Inner();
+	}
+}
@@ -6,8 +6,15 @@ import org.junit.Test;
 import x590.newyava.exception.DecompilationException;
 import x590.newyava.type.ArrayType;
 import x590.newyava.type.ClassType;
+import x590.newyava.type.IntMultiType;
 import x590.newyava.type.PrimitiveType;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class IClassArrayTypeTest {
 
 	@Test
@@ -90,4 +97,41 @@ public class IClassArrayTypeTest {
 		//x590/newyava/Main$Middle$Inner$1
 		ClassType.checkOrUpdateNested("x590/newyava/Main$Middle", "x590/newyava/Main");
 	}
+
+	@Test
+	public void testConcurrentInterning() throws InterruptedException, ExecutionException {
+		var service = Executors.newFixedThreadPool(8);
+
+		try {
+			List<Future<Object[]>> futures = new ArrayList<>();
+
+			for (int i = 0; i < 8; i++) {
+				futures.add(service.submit(() -> {
+					var classType = ClassType.valueOf("x590/newyava/Concurrent$Inner");
+					ClassType.checkOrUpdateNested("x590/newyava/Concurrent$Inner", "x590/newyava/Concurrent");
+
+					return new Object[] {
+							classType,
+							ArrayType.forType(classType),
+							IntMultiType.valueOf(IntMultiType.BYTE_FLAG | IntMultiType.CHAR_FLAG)
+					};
+				}));
+			}
+
+			var expected = futures.get(0).get();
+
+			for (var future : futures) {
+				var actual = future.get();
+
+				for (int i = 0; i < expected.length; i++) {
+					Assert.assertSame(expected[i], actual[i]);
+				}
+			}
+
+			Assert.assertEquals("x590.newyava.Concurrent.Inner", ((ClassType)expected[0]).getName());
+
+		} finally {
+			service.shutdown();
+		}
+	}
 }
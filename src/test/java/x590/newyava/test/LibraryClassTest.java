@@ -0,0 +1,60 @@
+package x590.newyava.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.LibraryClass;
+import x590.newyava.classpath.ClassPath;
+import x590.newyava.descriptor.MethodDescriptor;
+import x590.newyava.type.ClassType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class LibraryClassTest {
+
+	private static boolean initialized;
+
+	@SuppressWarnings("unused")
+	public static class Initializable {
+		static {
+			initialized = true;
+		}
+
+		public void method() {}
+
+		private void privateMethod() {}
+	}
+
+	private static LibraryClass read(String classBinName) throws IOException {
+		var bytes = ClassPath.system().findClass(classBinName);
+		Assert.assertNotNull(classBinName, bytes);
+		return new LibraryClass(bytes);
+	}
+
+	@Test
+	public void testJdkClass() throws IOException {
+		var clazz = read("java/util/Arrays");
+		var arraysType = ClassType.valueOf(Arrays.class);
+
+		Assert.assertSame(arraysType, clazz.getThisType());
+		Assert.assertSame(ClassType.OBJECT, clazz.getSuperType());
+
+		var asList = clazz.findMethod(MethodDescriptor.of(arraysType, "asList", "([Ljava/lang/Object;)Ljava/util/List;"));
+
+		Assert.assertTrue(asList.isPresent());
+		Assert.assertTrue(asList.get().isVarargs());
+		Assert.assertNotEquals(asList.get().getDescriptor(), asList.get().getVisibleDescriptor());
+
+		Assert.assertNull(ClassPath.system().findClass("java/util/NonExistentClass"));
+	}
+
+	@Test
+	public void testClassIsNotInitialized() throws IOException {
+		var clazz = read("x590/newyava/test/LibraryClassTest$Initializable");
+		var type = ClassType.valueOf("x590/newyava/test/LibraryClassTest$Initializable");
+
+		Assert.assertTrue(clazz.findMethod(MethodDescriptor.of(type, "method", "()V")).isPresent());
+		Assert.assertFalse(clazz.findMethod(MethodDescriptor.of(type, "privateMethod", "()V")).isPresent());
+		Assert.assertFalse(initialized);
+	}
+}
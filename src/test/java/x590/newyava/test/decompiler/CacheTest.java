@@ -0,0 +1,92 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.Decompiler;
+import x590.newyava.cache.DecompilationCache;
+import x590.newyava.example.ClassConstExample;
+import x590.newyava.example.code.NewExample;
+import x590.newyava.example.nested.NestedClassesExample;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+
+public class CacheTest {
+
+	private Path dir;
+
+	@Before
+	public void createDirectory() throws IOException {
+		dir = Files.createTempDirectory("newyava-cache");
+	}
+
+	@After
+	public void deleteDirectory() throws IOException {
+		try (var files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		var classes = ExampleClasses.withNested(NestedClassesExample.class, ClassConstExample.class, NewExample.class);
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected).run(classes.stream());
+
+		var cache = new DecompilationCache(dir);
+		var config = Config.builder().cache(cache).build();
+
+		for (int run = 0; run < 2; run++) {
+			var actual = new ContentWriterFactory();
+			new Decompiler(config, actual).run(classes.stream());
+			Assert.assertEquals(expected.contents, actual.contents);
+		}
+
+		Assert.assertEquals(3, cache.getStats().hits());
+		Assert.assertEquals(3, cache.getStats().misses());
+
+		// Повреждённая запись должна быть удалена и записана заново
+		try (var entries = Files.find(dir, 2, (path, attributes) -> attributes.isRegularFile())) {
+			Path entry = entries.findFirst().orElseThrow();
+			Files.writeString(entry, "corrupted", StandardOpenOption.APPEND);
+		}
+
+		var actual = new ContentWriterFactory();
+		new Decompiler(config, actual).run(classes.stream());
+		Assert.assertEquals(expected.contents, actual.contents);
+		Assert.assertEquals(4, cache.getStats().misses());
+	}
+
+	/** Изменение непрямого суперкласса меняет {@code @Override} в подклассе, поэтому запись кеша не должна использоваться. */
+	@Test
+	public void testIndirectSupertypeChange() throws IOException {
+		var classes = new GeneratedClasses()
+				.put("gen/A", "gen/B", "m")
+				.put("gen/B", "gen/C")
+				.put("gen/C", "java/lang/Object", "m");
+
+		var config = Config.builder().cache(new DecompilationCache(dir)).build();
+
+		var before = new ContentWriterFactory();
+		new Decompiler(config, before).run(classes.names().stream(), classes::open);
+		Assert.assertTrue(before.contents.get("gen.A"), before.contents.get("gen.A").contains("@Override"));
+
+		classes.put("gen/C", "java/lang/Object");
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected).run(classes.names().stream(), classes::open);
+
+		var actual = new ContentWriterFactory();
+		new Decompiler(config, actual).run(classes.names().stream(), classes::open);
+
+		Assert.assertFalse(actual.contents.get("gen.A"), actual.contents.get("gen.A").contains("@Override"));
+		Assert.assertEquals(expected.contents, actual.contents);
+	}
+}
@@ -0,0 +1,32 @@
+package x590.newyava.test.decompiler;
+
+import x590.newyava.io.WriterFactory;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Сохраняет текст классов в памяти в порядке записи. Используется для сравнения результатов разных режимов. */
+final class ContentWriterFactory implements WriterFactory {
+	final Map<String, String> contents = new LinkedHashMap<>();
+	private final Map<Writer, String> classNames = new HashMap<>();
+
+	@Override
+	public Writer getWriter(String className) {
+		var writer = new StringWriter();
+		classNames.put(writer, className);
+		return writer;
+	}
+
+	@Override
+	public void closeWriter(Writer writer) {
+		contents.put(classNames.remove(writer), writer.toString());
+	}
+
+	@Override
+	public void removeClass(String className) {
+		contents.remove(className);
+	}
+}
@@ -0,0 +1,59 @@
+package x590.newyava.test.decompiler;
+
+import x590.newyava.example.ClassConstExample;
+import x590.newyava.example.code.NewExample;
+import x590.newyava.example.enums.EnumWithNestedClassExample;
+import x590.newyava.example.nested.NestedClassesExample;
+import x590.newyava.example.nested.NonstaticNestedClassExample;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** Наборы классов из примеров для тестов, сравнивающих разные режимы декомпиляции. */
+final class ExampleClasses {
+	private ExampleClasses() {}
+
+	/** Несколько гнёзд, в том числе с вложенными, нестатическими вложенными классами и {@code enum}-ом. */
+	static final List<Class<?>> NESTS = withNested(
+			NestedClassesExample.class, NonstaticNestedClassExample.class,
+			EnumWithNestedClassExample.class, ClassConstExample.class, NewExample.class
+	);
+
+	/** @return директорию, в которой лежат скомпилированные примеры. */
+	static Path classesDirectory() {
+		try {
+			return Path.of(NewExample.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		} catch (URISyntaxException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * @return внутренние имена всех классов из примеров в порядке сортировки.
+	 * Классы читаются через {@link x590.newyava.Decompiler#fileResourceGetter(String)}
+	 * с директорией {@link #classesDirectory()}.
+	 */
+	static List<String> corpus() throws IOException {
+		var directory = classesDirectory();
+
+		try (var files = Files.walk(directory.resolve("x590/newyava/example"))) {
+			return files.map(file -> directory.relativize(file).toString().replace('\\', '/'))
+					.filter(name -> name.endsWith(".class"))
+					.map(name -> name.substring(0, name.length() - ".class".length()))
+					.sorted()
+					.toList();
+		}
+	}
+
+	/** @return переданные классы вместе с их объявленными вложенными классами. */
+	static List<Class<?>> withNested(Class<?>... classes) {
+		return Arrays.stream(classes)
+				.flatMap(clazz -> Stream.concat(Stream.of(clazz), Arrays.stream(clazz.getDeclaredClasses())))
+				.toList();
+	}
+}
@@ -0,0 +1,62 @@
+package x590.newyava.test.decompiler;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/** Классы, сгенерированные в памяти. Используются в тестах, где классы меняются между запусками. */
+final class GeneratedClasses {
+	private final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+	/**
+	 * Добавляет или заменяет публичный класс с конструктором по умолчанию
+	 * и пустыми публичными методами {@code void name()}.
+	 * @param name бинарное имя класса, например {@code "gen/A"}.
+	 * @param superName бинарное имя суперкласса.
+	 */
+	GeneratedClasses put(String name, String superName, String... methods) {
+		var writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(V17, ACC_PUBLIC | ACC_SUPER, name, null, superName, null);
+
+		MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		constructor.visitCode();
+		constructor.visitVarInsn(ALOAD, 0);
+		constructor.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V", false);
+		constructor.visitInsn(RETURN);
+		constructor.visitMaxs(0, 0);
+		constructor.visitEnd();
+
+		for (String method : methods) {
+			MethodVisitor visitor = writer.visitMethod(ACC_PUBLIC, method, "()V", null, null);
+			visitor.visitCode();
+			visitor.visitInsn(RETURN);
+			visitor.visitMaxs(0, 0);
+			visitor.visitEnd();
+		}
+
+		writer.visitEnd();
+		classes.put(name, writer.toByteArray());
+		return this;
+	}
+
+	GeneratedClasses remove(String name) {
+		classes.remove(name);
+		return this;
+	}
+
+	/** @return бинарные имена классов в порядке добавления. */
+	List<String> names() {
+		return List.copyOf(classes.keySet());
+	}
+
+	InputStream open(String name) {
+		return new ByteArrayInputStream(classes.get(name));
+	}
+}
@@ -0,0 +1,89 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.Decompiler;
+import x590.newyava.IncrementalDecompiler;
+import x590.newyava.example.ClassConstExample;
+import x590.newyava.example.code.NewExample;
+import x590.newyava.example.nested.NestedClassesExample;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class IncrementalTest {
+	@Test
+	public void testIncremental() {
+		List<Class<?>> nested = Stream.concat(Stream.of(NestedClassesExample.class),
+				Arrays.stream(NestedClassesExample.class.getDeclaredClasses())).toList();
+
+		List<Class<?>> classes = Stream.concat(nested.stream(), Stream.of(ClassConstExample.class, NewExample.class)).toList();
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected).run(classes.stream());
+
+		List<Class<?>> opened = new ArrayList<>();
+
+		var actual = new ContentWriterFactory();
+		var decompiler = new IncrementalDecompiler<Class<?>>(Config.defaultConfig(), actual, clazz -> {
+			opened.add(clazz);
+			return clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+		});
+
+		var update = decompiler.run(classes);
+		Assert.assertEquals(expected.contents.keySet(), update.written());
+		Assert.assertEquals(expected.contents, actual.contents);
+
+		// Содержимое не изменилось, поэтому заново читается только скелет изменённого класса
+		opened.clear();
+		update = decompiler.update(List.of(), List.of(ClassConstExample.class), List.of());
+		Assert.assertEquals(Set.of(), update.written());
+		Assert.assertEquals(List.of(ClassConstExample.class), opened);
+
+		update = decompiler.update(List.of(), List.of(), List.of(NewExample.class));
+		Assert.assertEquals(Set.of(), update.written());
+		Assert.assertEquals(Set.of(NewExample.class.getName()), update.removed());
+		Assert.assertFalse(actual.contents.containsKey(NewExample.class.getName()));
+
+		update = decompiler.update(List.of(NewExample.class), List.of(), List.of());
+		Assert.assertEquals(Set.of(NewExample.class.getName()), update.written());
+		Assert.assertEquals(expected.contents, actual.contents);
+
+		// Удаление вложенного класса затрагивает только его гнездо
+		update = decompiler.update(List.of(), List.of(), List.of(nested.get(1)));
+		Assert.assertEquals(Set.of(NestedClassesExample.class.getName()), update.written());
+		Assert.assertEquals(Set.of(), update.removed());
+
+		decompiler.close();
+	}
+
+	/** Изменение непрямого суперкласса меняет {@code @Override} в подклассе, поэтому подкласс записывается заново. */
+	@Test
+	public void testIndirectSupertypeChange() {
+		var classes = new GeneratedClasses()
+				.put("gen/A", "gen/B", "m")
+				.put("gen/B", "gen/C")
+				.put("gen/C", "java/lang/Object", "m");
+
+		var actual = new ContentWriterFactory();
+		var decompiler = new IncrementalDecompiler<String>(Config.defaultConfig(), actual, classes::open);
+
+		decompiler.run(classes.names());
+		Assert.assertTrue(actual.contents.get("gen.A"), actual.contents.get("gen.A").contains("@Override"));
+
+		classes.put("gen/C", "java/lang/Object");
+
+		var update = decompiler.update(List.of(), List.of("gen/C"), List.of());
+		Assert.assertEquals(Set.of("gen.A", "gen.B", "gen.C"), update.written());
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected).run(classes.names().stream(), classes::open);
+		Assert.assertEquals(expected.contents, actual.contents);
+
+		decompiler.close();
+	}
+}
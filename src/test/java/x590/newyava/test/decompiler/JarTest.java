@@ -0,0 +1,83 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.Decompiler;
+import x590.newyava.example.ClassConstExample;
+import x590.newyava.example.code.NewExample;
+import x590.newyava.io.WriterFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+public class JarTest {
+
+	private static final class NamesWriterFactory implements WriterFactory {
+		private final List<String> classNames = new ArrayList<>();
+
+		@Override
+		public Writer getWriter(String className) {
+			classNames.add(className);
+			return new StringWriter();
+		}
+
+		@Override
+		public void closeWriter(Writer writer) {}
+	}
+
+	private static byte[] classBytes(Class<?> clazz) throws IOException {
+		try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+			Assert.assertNotNull(in);
+			return in.readAllBytes();
+		}
+	}
+
+	private static void putEntry(JarOutputStream out, String name, byte[] bytes) throws IOException {
+		out.putNextEntry(new JarEntry(name));
+		out.write(bytes);
+		out.closeEntry();
+	}
+
+	@Test
+	public void testMultiRelease() throws IOException {
+		Path jar = Files.createTempFile("newyava", ".jar");
+
+		try {
+			var manifest = new Manifest();
+			manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+			manifest.getMainAttributes().put(Attributes.Name.MULTI_RELEASE, "true");
+
+			try (var out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+				putEntry(out, "x590/newyava/example/ClassConstExample.class", classBytes(ClassConstExample.class));
+				putEntry(out, "readme.txt", new byte[] { 'o', 'k' });
+
+				// Версионная запись должна заменить основную
+				putEntry(out, "META-INF/versions/9/x590/newyava/example/ClassConstExample.class",
+						classBytes(NewExample.class));
+
+				// Версия выше текущей не должна учитываться
+				putEntry(out, "META-INF/versions/" + (Runtime.version().feature() + 1) +
+						"/x590/newyava/example/ClassConstExample.class", classBytes(JarTest.class));
+			}
+
+			var writerFactory = new NamesWriterFactory();
+			new Decompiler(Config.defaultConfig(), writerFactory).run(jar);
+
+			Assert.assertEquals(List.of(NewExample.class.getName()), writerFactory.classNames);
+
+		} finally {
+			Files.delete(jar);
+		}
+	}
+}
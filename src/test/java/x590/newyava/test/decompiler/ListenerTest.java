@@ -0,0 +1,81 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.DecompilationListener;
+import x590.newyava.Decompiler;
+import x590.newyava.descriptor.MethodDescriptor;
+import x590.newyava.example.ClassConstExample;
+import x590.newyava.example.code.NewExample;
+import x590.newyava.type.ClassType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class ListenerTest {
+	@Test
+	public void testListener() {
+		Map<String, Long> written = new LinkedHashMap<>();
+		Set<String> stages = new HashSet<>();
+		List<DecompilationListener.RunSummary> summaries = new ArrayList<>();
+
+		var listener = new DecompilationListener() {
+			@Override
+			public void stageFinished(String stage, long time) {
+				stages.add(stage);
+			}
+
+			@Override
+			public void methodDecompiled(MethodDescriptor descriptor, int instructions, int chunks, int scopes) {
+				Assert.assertTrue(descriptor.toString(), chunks > 0);
+			}
+
+			@Override
+			public void classWritten(ClassType type, long chars) {
+				written.put(type.getName(), chars);
+			}
+
+			@Override
+			public void runFinished(RunSummary summary) {
+				summaries.add(summary);
+			}
+		};
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.builder().listener(listener).build(), expected).run(ClassConstExample.class, NewExample.class);
+
+		Assert.assertEquals(expected.contents.keySet(), written.keySet());
+		expected.contents.forEach((className, content) -> Assert.assertEquals((long)content.length(), (long)written.get(className)));
+
+		Assert.assertTrue(stages.toString(), stages.contains("decompile"));
+		Assert.assertEquals(1, summaries.size());
+		Assert.assertEquals(0, summaries.get(0).timeouts());
+	}
+
+	/** Ошибка чтения класса передаётся слушателю вместе с источником и пробрасывается дальше. */
+	@Test
+	public void testClassReadFailed() {
+		List<Object> sources = new ArrayList<>();
+
+		var listener = new DecompilationListener() {
+			@Override
+			public void classReadFailed(Object source, Throwable exception) {
+				Assert.assertTrue(exception instanceof IOException);
+				sources.add(source);
+			}
+		};
+
+		Assert.assertThrows(UncheckedIOException.class, () -> new Decompiler(Config.builder().listener(listener).build())
+				.run(Stream.of("Missing"), name -> { throw new IOException(name + " is not found"); }));
+
+		Assert.assertEquals(List.of("Missing"), sources);
+	}
+}
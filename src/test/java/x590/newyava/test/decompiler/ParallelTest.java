@@ -0,0 +1,55 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.Decompiler;
+
+import java.io.IOException;
+import java.util.List;
+
+public class ParallelTest {
+
+	/** Параллельное чтение и запись в несколько потоков дают тот же текст в том же порядке, что и в одном потоке. */
+	@Test
+	public void testParallelReadingAndWriting() {
+		var classes = ExampleClasses.NESTS;
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.builder().threads(1).build(), expected).run(classes.stream());
+
+		List<Config> configs = List.of(
+				Config.builder().threads(4).parallelReading(true).build(),
+				Config.builder().threads(4).parallelWriting(true).build(),
+				Config.builder().threads(4).parallelReading(true).parallelWriting(true).build()
+		);
+
+		for (var config : configs) {
+			var actual = new ContentWriterFactory();
+			new Decompiler(config, actual).run(classes.stream());
+
+			Assert.assertEquals(List.copyOf(expected.contents.keySet()), List.copyOf(actual.contents.keySet()));
+			Assert.assertEquals(expected.contents, actual.contents);
+		}
+	}
+
+	/**
+	 * Результат не зависит от количества потоков и от того, в каком порядке найдены предки библиотечных классов.
+	 * Многопоточный запуск идёт первым, чтобы предки библиотечных классов ещё не были найдены однопоточным.
+	 */
+	@Test
+	public void testLibraryHierarchies() throws IOException {
+		var corpus = ExampleClasses.corpus();
+		var directory = ExampleClasses.classesDirectory().toString();
+
+		var actual = new ContentWriterFactory();
+		new Decompiler(Config.builder().threads(8).parallelReading(true).parallelWriting(true).build(), actual)
+				.run(corpus.stream(), Decompiler.fileResourceGetter(directory));
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.builder().threads(1).build(), expected)
+				.run(corpus.stream(), Decompiler.fileResourceGetter(directory));
+
+		Assert.assertEquals(expected.contents, actual.contents);
+	}
+}
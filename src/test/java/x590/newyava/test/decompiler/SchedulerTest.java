@@ -0,0 +1,67 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.DecompilationListener;
+import x590.newyava.Decompiler;
+import x590.newyava.type.ClassType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SchedulerTest {
+
+	/**
+	 * Гнездо переходит к следующей стадии только после того, как предыдущая стадия завершена у гнезда,
+	 * от которого оно зависит, а независимое гнездо проходит все стадии, не дожидаясь медленного гнезда.
+	 * Код гнезда освобождается не раньше, чем записаны все гнёзда, которые от него зависят,
+	 * поэтому текст совпадает с однопоточным запуском.
+	 */
+	@Test
+	public void testDependencyOrder() {
+		// A зависит от B, так как суперкласс попадает в пул констант. C ни от кого не зависит
+		var classes = new GeneratedClasses()
+				.put("gen/A", "gen/B", "a")
+				.put("gen/B", "java/lang/Object", "b")
+				.put("gen/C", "java/lang/Object", "c");
+
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+		var listener = new DecompilationListener() {
+			@Override
+			public void classStageFinished(ClassType classType, String stage, long time) {
+				if (classType.getSimpleName().equals("B") && stage.equals("decompile")) {
+					sleep(200);
+				}
+
+				events.add(classType.getSimpleName() + "." + stage);
+			}
+		};
+
+		var actual = new ContentWriterFactory();
+		new Decompiler(Config.builder().threads(4).parallelWriting(true).listener(listener).build(), actual)
+				.run(classes.names().stream(), classes::open);
+
+		Assert.assertTrue(events.toString(), events.indexOf("A.decompile") < events.indexOf("A.afterDecompilation"));
+		Assert.assertTrue(events.toString(), events.indexOf("B.decompile") < events.indexOf("A.afterDecompilation"));
+
+		// Между стадиями нет общего барьера
+		Assert.assertTrue(events.toString(), events.indexOf("C.computeImports") < events.indexOf("B.decompile"));
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.builder().threads(1).build(), expected).run(classes.names().stream(), classes::open);
+
+		Assert.assertEquals(expected.contents, actual.contents);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.DecompilationService;
+import x590.newyava.Decompiler;
+import x590.newyava.classpath.ClassPath;
+import x590.newyava.example.ClassConstExample;
+import x590.newyava.example.code.NewExample;
+import x590.newyava.example.enums.EnumWithNestedClassExample;
+import x590.newyava.example.nested.NestedClassesExample;
+import x590.newyava.example.nested.NonstaticNestedClassExample;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ServiceTest {
+
+	@Test
+	public void testService() throws Exception {
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected).run(ClassConstExample.class, NewExample.class);
+
+		try (var classPath = ClassPath.of(ExampleClasses.classesDirectory())) {
+			var service = new DecompilationService(Config.defaultConfig(), classPath);
+
+			for (var clazz : List.of(ClassConstExample.class, NewExample.class)) {
+				Assert.assertEquals(expected.contents.get(clazz.getName()), service.decompileToString(clazz.getName()));
+			}
+
+			// Для вложенного класса возвращается класс верхнего уровня из той же записи кеша
+			var outer = service.decompileToString(NestedClassesExample.class.getName());
+			Assert.assertEquals(outer, service.decompileToString(NestedClassesExample.class.getName().replace('.', '/')));
+			Assert.assertEquals(outer, service.decompileToString(NestedClassesExample.class.getDeclaredClasses()[0].getName()));
+
+			Assert.assertEquals(2, service.getCacheStats().hitCount());
+			Assert.assertEquals(3, service.getCacheStats().missCount());
+		}
+	}
+
+	/** Разные гнёзда, запрошенные из нескольких потоков, декомпилируются так же, как и по одному. */
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		List<Class<?>> classes = List.of(
+				NestedClassesExample.class, NonstaticNestedClassExample.class,
+				EnumWithNestedClassExample.class, ClassConstExample.class, NewExample.class
+		);
+
+		try (var classPath = ClassPath.of(ExampleClasses.classesDirectory())) {
+			var sequential = new DecompilationService(Config.defaultConfig(), classPath);
+			var concurrent = new DecompilationService(Config.defaultConfig(), classPath);
+
+			List<Callable<String>> requests = new ArrayList<>();
+
+			for (int i = 0; i < 4; i++) {
+				for (var clazz : classes) {
+					requests.add(() -> concurrent.decompileToString(clazz.getName()));
+				}
+			}
+
+			var service = Executors.newFixedThreadPool(4);
+
+			try {
+				List<Future<String>> results = service.invokeAll(requests);
+
+				for (int i = 0; i < results.size(); i++) {
+					var className = classes.get(i % classes.size()).getName();
+					Assert.assertEquals(sequential.decompileToString(className), results.get(i).get());
+				}
+
+			} finally {
+				service.shutdown();
+			}
+
+			Assert.assertEquals(classes.size(), concurrent.getCacheSize());
+		}
+	}
+
+	/** Все примеры, запрошенные по одному, декомпилируются так же, как и при чтении всех классов сразу. */
+	@Test
+	public void testCorpus() throws Exception {
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected)
+				.run(ExampleClasses.corpus().stream(), Decompiler.fileResourceGetter(ExampleClasses.classesDirectory().toString()));
+
+		try (var classPath = ClassPath.of(ExampleClasses.classesDirectory())) {
+			var service = new DecompilationService(Config.defaultConfig(), classPath);
+			expected.contents.forEach((className, content) ->
+					Assert.assertEquals(className, content, service.decompileToString(className)));
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.Decompiler;
+
+import java.io.IOException;
+
+public class StreamingTest {
+	@Test
+	public void testStreaming() {
+		var classes = ExampleClasses.NESTS;
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected).run(classes.stream());
+
+		// Каждое гнездо в отдельном окне
+		var actual = new ContentWriterFactory();
+		new Decompiler(Config.builder().streamingMemoryBudget(1).build(), actual).run(classes.stream());
+
+		Assert.assertEquals(expected.contents.keySet(), actual.contents.keySet());
+		expected.contents.forEach((className, content) -> Assert.assertEquals(content, actual.contents.get(className)));
+	}
+
+	/** Все примеры, по одному гнезду в окне, в том числе с конструкторами нестатических
+	 * вложенных классов, которые вызываются из других гнёзд и находятся только среди скелетов. */
+	@Test
+	public void testCorpus() throws IOException {
+		var corpus = ExampleClasses.corpus();
+		var directory = ExampleClasses.classesDirectory().toString();
+
+		var expected = new ContentWriterFactory();
+		new Decompiler(Config.defaultConfig(), expected).run(corpus.stream(), Decompiler.fileResourceGetter(directory));
+
+		var actual = new ContentWriterFactory();
+		new Decompiler(Config.builder().streamingMemoryBudget(1).build(), actual)
+				.run(corpus.stream(), Decompiler.fileResourceGetter(directory));
+
+		Assert.assertEquals(expected.contents, actual.contents);
+	}
+}
@@ -0,0 +1,51 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.Decompiler;
+import x590.newyava.cache.DecompilationCache;
+import x590.newyava.test.performance.StressCorpusGenerator;
+import x590.newyava.test.performance.StressCorpusGenerator.Kind;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class TimeBudgetTest {
+
+	/** Метод, который не укладывается в бюджет, заменяется сообщением об ошибке, а класс не кешируется. */
+	@Test
+	public void testMethodTimeout() throws IOException {
+		byte[] bytes = StressCorpusGenerator.generate(Kind.LOCALS, 800);
+		String className = StressCorpusGenerator.className(Kind.LOCALS, 800).replace('/', '.');
+
+		Path dir = Files.createTempDirectory("newyava-cache");
+
+		try {
+			var cache = new DecompilationCache(dir);
+			var config = Config.builder().methodTimeBudget(1).cache(cache).build();
+
+			for (int run = 0; run < 2; run++) {
+				var writerFactory = new ContentWriterFactory();
+				var decompiler = new Decompiler(config, writerFactory);
+				decompiler.run(Stream.of(bytes), ByteArrayInputStream::new);
+
+				var content = writerFactory.contents.get(className);
+				Assert.assertTrue(content, content.contains("DecompilationTimeoutException: Method decompilation exceeded time budget of 1 ms"));
+				Assert.assertEquals(1, decompiler.getTimeoutCount());
+			}
+
+			Assert.assertEquals(0, cache.getStats().hits());
+			Assert.assertEquals(0, cache.getStats().size());
+
+		} finally {
+			try (var files = Files.walk(dir)) {
+				files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package x590.newyava.test.decompiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import x590.newyava.Config;
+import x590.newyava.Decompiler;
+import x590.newyava.example.ClassConstExample;
+import x590.newyava.example.code.NewExample;
+import x590.newyava.io.ZipWriterFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class ZipOutputTest {
+	@Test
+	public void testZipOutput() throws IOException {
+		var bytes = new ByteArrayOutputStream();
+		new Decompiler(Config.defaultConfig(), new ZipWriterFactory(bytes)).run(ClassConstExample.class, NewExample.class);
+
+		List<String> entryNames = new ArrayList<>();
+
+		try (var in = new ZipInputStream(new ByteArrayInputStream(bytes.toByteArray()), StandardCharsets.UTF_8)) {
+			for (ZipEntry entry; (entry = in.getNextEntry()) != null; ) {
+				entryNames.add(entry.getName());
+
+				var content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+				Assert.assertTrue(entry.getName(), content.contains("class "));
+			}
+		}
+
+		Assert.assertEquals(
+				List.of("x590/newyava/example/ClassConstExample.java", "x590/newyava/example/code/NewExample.java"),
+				entryNames
+		);
+	}
+
+	/** При ошибке сжатия архив закрывается без центрального каталога, а ошибка пробрасывается из {@code close()}. */
+	@Test
+	public void testCompressionFailure() throws IOException {
+		var out = new FailingOutputStream();
+		var factory = new ZipWriterFactory(out);
+
+		// Случайный текст плохо сжимается, поэтому переполняет буфер и доходит до потока
+		var random = new Random(0);
+		var writer = factory.getWriter("Example");
+
+		for (int i = 0; i < 200_000; i++) {
+			writer.write('a' + random.nextInt(26));
+		}
+
+		factory.closeWriter(writer);
+
+		var exception = Assert.assertThrows(IOException.class, factory::close);
+		Assert.assertEquals("disk full", exception.getMessage());
+		Assert.assertTrue(out.closed);
+		Assert.assertEquals(0, out.finishAttempts);
+	}
+
+	private static final class FailingOutputStream extends OutputStream {
+		private boolean closed;
+
+		/** Количество записей после первой ошибки, например, попыток записать центральный каталог. */
+		private int finishAttempts = -1;
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte)b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			finishAttempts++;
+			throw new IOException("disk full");
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+}
@@ -2,9 +2,9 @@ package x590.newyava.test.exploring;
 
 import org.jetbrains.annotations.Nullable;
 import org.junit.Test;
-import x590.newyava.ReflectField;
-import x590.newyava.ReflectMethod;
+import x590.newyava.LibraryClass;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.TypeVariable;
 import java.util.List;
@@ -12,9 +12,18 @@ import java.util.Map;
 
 public class GenericTypesTest {
 	@Test
-	public void test() {
-		var method = new ReflectMethod(TestInterface.class.getDeclaredMethods()[0]);
-		var field = new ReflectField(TestInterface.class.getDeclaredFields()[0]);
+	public void test() throws IOException {
+		LibraryClass libraryClass;
+
+		try (var in = TestInterface.class.getResourceAsStream(
+				TestInterface.class.getName().substring(TestInterface.class.getPackageName().length() + 1) + ".class")) {
+
+			assert in != null;
+			libraryClass = new LibraryClass(in.readAllBytes());
+		}
+
+		var method = libraryClass.getMethods().values().iterator().next();
+		var field = libraryClass.getFields().values().iterator().next();
 
 		System.out.println(method.getVisibleDescriptor());
 		System.out.println(field.getVisibleDescriptor());
@@ -24,9 +33,9 @@ public class GenericTypesTest {
 	}
 
 	@SuppressWarnings("unused")
-	private abstract static class TestInterface<T extends Comparable<T> & Serializable> {
-		abstract <U extends Comparable<? extends U> & Serializable> U add(Map<? super Object, U> map, U[][] us);
+	public abstract static class TestInterface<T extends Comparable<T> & Serializable> {
+		public abstract <U extends Comparable<? extends U> & Serializable> U add(Map<? super Object, U> map, U[][] us);
 
-		private List<?> @Nullable[] list;
+		public List<?> @Nullable[] list;
 	}
 }
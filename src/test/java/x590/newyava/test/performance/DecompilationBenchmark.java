@@ -0,0 +1,177 @@
+package x590.newyava.test.performance;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+import x590.newyava.Config;
+import x590.newyava.DecompilationListener;
+import x590.newyava.Decompiler;
+import x590.newyava.DecompilingClass;
+import x590.newyava.example.ClassConstExample;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Бенчмарк всех стадий декомпиляции на корпусе из скомпилированных классов пакета {@code x590.newyava.example}
+ * или из классов с большими методами, сгенерированных {@link StressCorpusGenerator} (параметр {@link #corpusName}).
+ * <p>
+ * {@link #read} измеряет только чтение классов, {@link #decompileAndWrite} - полный запуск
+ * {@link Decompiler} в одном и нескольких потоках (параметр {@link #threads}).
+ * Время отдельных стадий полного запуска передаётся через {@link DecompilationListener}
+ * и выводится как дополнительные результаты ({@link StageTimes}) в миллисекундах на один запуск.
+ * <p>
+ * Запуск: {@code java -cp <test classpath> org.openjdk.jmh.Main DecompilationBenchmark -prof gc}.
+ * Профилировщик {@code gc} добавляет скорость выделения памяти.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@Fork(value = 1, jvmArgs = "--enable-preview")
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DecompilationBenchmark {
+
+	/** Количество потоков декомпиляции. */
+	@Param({"1", "4"})
+	public int threads;
+
+	/** {@code "examples"} или {@code "stress"}. */
+	@Param({"examples", "stress"})
+	public String corpusName;
+
+	/** Размер методов корпуса {@code "stress"}. */
+	private static final int STRESS_SIZE = 200;
+
+	/** Содержимое class-файлов корпуса. */
+	private List<byte[]> corpus;
+
+	private Config config;
+
+	private final StageListener listener = new StageListener();
+
+	@Setup
+	public void setup() throws IOException, URISyntaxException {
+		corpus = corpusName.equals("stress") ? StressCorpusGenerator.corpus(STRESS_SIZE) : readExamples();
+
+		config = Config.builder()
+				.threads(threads)
+				.listener(listener)
+				.build();
+	}
+
+	private static List<byte[]> readExamples() throws IOException, URISyntaxException {
+		Path classes = Path.of(ClassConstExample.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		List<byte[]> corpus = new ArrayList<>();
+
+		try (var files = Files.walk(classes.resolve("x590/newyava/example"))) {
+			for (var file : files.filter(path -> path.toString().endsWith(".class")).sorted().toList()) {
+				corpus.add(Files.readAllBytes(file));
+			}
+		}
+
+		return corpus;
+	}
+
+	@Benchmark
+	public List<DecompilingClass> read() {
+		var decompiler = new Decompiler(config, NullWriterFactory.INSTANCE);
+		List<DecompilingClass> classes = new ArrayList<>(corpus.size());
+
+		for (byte[] bytes : corpus) {
+			classes.add(new DecompilingClass(decompiler, new ClassReader(bytes)));
+		}
+
+		return classes;
+	}
+
+	@Benchmark
+	public void decompileAndWrite(StageTimes stageTimes) {
+		listener.reset();
+		new Decompiler(config, NullWriterFactory.INSTANCE).run(corpus.stream(), ByteArrayInputStream::new);
+		stageTimes.add(listener);
+	}
+
+
+	/** Собирает время этапов и стадий одного запуска. */
+	private static final class StageListener implements DecompilationListener {
+		private final LongAdder
+				reading = new LongAdder(),
+				decompile = new LongAdder(),
+				afterDecompilation = new LongAdder(),
+				processVariables = new LongAdder(),
+				imports = new LongAdder(),
+				writing = new LongAdder();
+
+		void reset() {
+			for (var adder : List.of(reading, decompile, afterDecompilation, processVariables, imports, writing)) {
+				adder.reset();
+			}
+		}
+
+		@Override
+		public void phaseFinished(String phase, long time) {
+			switch (phase) {
+				case "Reading" -> reading.add(time);
+				case "Writing" -> writing.add(time);
+			}
+		}
+
+		@Override
+		public void stageFinished(String stage, long time) {
+			switch (stage) {
+				case "decompile" -> decompile.add(time);
+				case "afterDecompilation" -> afterDecompilation.add(time);
+				case "processVariables" -> processVariables.add(time);
+				case "addImports", "computeImports" -> imports.add(time);
+			}
+		}
+	}
+
+	/**
+	 * Среднее время этапов и стадий на один запуск в миллисекундах.
+	 * Время стадий суммируется по всем потокам, время чтения и записи - реальное.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class StageTimes {
+		public double readingMs, decompileMs, afterDecompilationMs, processVariablesMs, importsMs, writingMs;
+
+		private long runs;
+		private final long[] totals = new long[6];
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			runs = 0;
+			Arrays.fill(totals, 0);
+		}
+
+		void add(StageListener listener) {
+			runs++;
+			totals[0] += listener.reading.sum();
+			totals[1] += listener.decompile.sum();
+			totals[2] += listener.afterDecompilation.sum();
+			totals[3] += listener.processVariables.sum();
+			totals[4] += listener.imports.sum();
+			totals[5] += listener.writing.sum();
+
+			readingMs            = average(0);
+			decompileMs          = average(1);
+			afterDecompilationMs = average(2);
+			processVariablesMs   = average(3);
+			importsMs            = average(4);
+			writingMs            = average(5);
+		}
+
+		private double average(int index) {
+			return totals[index] / 1e6 / runs;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package x590.newyava.test.performance;
+
+import x590.newyava.io.WriterFactory;
+
+import java.io.Writer;
+
+/** Отбрасывает записанный текст, чтобы бенчмарки измеряли только декомпиляцию и запись. */
+enum NullWriterFactory implements WriterFactory {
+	INSTANCE;
+
+	@Override
+	public Writer getWriter(String className) {
+		return Writer.nullWriter();
+	}
+
+	@Override
+	public void closeWriter(Writer writer) {}
+}
@@ -0,0 +1,105 @@
+package x590.newyava.test.performance;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import x590.newyava.Config;
+import x590.newyava.DecompilationListener;
+import x590.newyava.Decompiler;
+import x590.newyava.test.performance.StressCorpusGenerator.Kind;
+
+import java.io.ByteArrayInputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Измеряет время декомпиляции одного класса из {@link StressCorpusGenerator} в зависимости от его размера.
+ * <p>
+ * Запуск через {@link #main} выводит для каждого вида график времени от размера и показатель роста
+ * между соседними размерами: {@code log(t2 / t1) / log(s2 / s1)}. Показатель около 1 означает
+ * линейный рост, заметно больше 1 - сверхлинейный. Размеры задаются через {@code -p size=...}.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({Mode.AverageTime})
+@Fork(value = 1, jvmArgs = "--enable-preview")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class StressBenchmark {
+
+	@Param({"CHUNKS", "CONDITIONS", "SHORT_CIRCUIT", "SWITCH", "TRY_CATCH", "LOCALS"})
+	public Kind kind;
+
+	@Param({"50", "100", "200", "400"})
+	public int size;
+
+	private byte[] bytes;
+
+	private Config config;
+
+	@Setup
+	public void setup() {
+		bytes = StressCorpusGenerator.generate(kind, size);
+
+		config = Config.builder()
+				.threads(1)
+				.listener(DecompilationListener.NONE)
+				.build();
+	}
+
+	@Benchmark
+	public void decompile() {
+		new Decompiler(config, NullWriterFactory.INSTANCE).run(Stream.of(bytes), ByteArrayInputStream::new);
+	}
+
+
+	private static final int PLOT_WIDTH = 60;
+
+	public static void main(String[] args) throws Exception {
+		Options options = new CommandLineOptions(args);
+
+		if (options.getIncludes().isEmpty()) {
+			options = new OptionsBuilder().parent(options).include(StressBenchmark.class.getSimpleName()).build();
+		}
+
+		Map<Kind, SortedMap<Integer, Double>> scores = new EnumMap<>(Kind.class);
+
+		for (RunResult result : new Runner(options).run()) {
+			var params = result.getParams();
+
+			if (!params.getBenchmark().startsWith(StressBenchmark.class.getName()))
+				continue;
+
+			scores.computeIfAbsent(Kind.valueOf(params.getParam("kind")), kind -> new TreeMap<>())
+					.put(Integer.parseInt(params.getParam("size")), result.getPrimaryResult().getScore());
+		}
+
+		scores.forEach((kind, times) -> {
+			System.out.println();
+			System.out.println(kind);
+
+			double max = Collections.max(times.values());
+			Map.Entry<Integer, Double> prev = null;
+
+			for (var entry : times.entrySet()) {
+				int barLength = (int)Math.round(entry.getValue() / max * PLOT_WIDTH);
+				var line = String.format("%8d | %-" + PLOT_WIDTH + "s %10.3f ms", entry.getKey(),
+						"#".repeat(barLength), entry.getValue());
+
+				if (prev != null) {
+					double growth = Math.log(entry.getValue() / prev.getValue()) /
+							Math.log((double)entry.getKey() / prev.getKey());
+
+					line += String.format("  x^%.2f", growth);
+				}
+
+				System.out.println(line);
+				prev = entry;
+			}
+		});
+	}
+}
@@ -0,0 +1,231 @@
+package x590.newyava.test.performance;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Генерирует классы, трудные для отдельных алгоритмов декомпиляции. Каждый класс содержит
+ * один статический метод {@code int test(int x)}, размер которого задаётся параметром {@code size}.
+ */
+public final class StressCorpusGenerator {
+
+	private StressCorpusGenerator() {}
+
+	public enum Kind {
+		/** {@code size} последовательных {@code if} - около {@code 2 * size} чанков. */
+		CHUNKS,
+
+		/** Цепочка {@code if}/{@code else} глубиной {@code size}, для {@code collapseConditions}. */
+		CONDITIONS,
+
+		/** Условие {@code x != 0 && x != 1 && ...} из {@code size} частей, для {@code collapseConditions}. */
+		SHORT_CIRCUIT,
+
+		/** {@code tableswitch} на {@code size} веток, для {@code addSwitchScopes}. */
+		SWITCH,
+
+		/** {@code size} вложенных друг в друга диапазонов {@code try}/{@code catch}, для {@code getTryCatchMap}. */
+		TRY_CATCH,
+
+		/** {@code size} одновременно живых локальных переменных, для обработки переменных. */
+		LOCALS
+	}
+
+	/** @return внутреннее имя сгенерированного класса, например {@code x590/newyava/stress/Chunks100}. */
+	public static String className(Kind kind, int size) {
+		var name = kind.name().charAt(0) + kind.name().substring(1).toLowerCase().replace("_c", "C");
+		return "x590/newyava/stress/" + name + size;
+	}
+
+	/** @return class-файлы всех видов указанного размера. */
+	public static List<byte[]> corpus(int size) {
+		return Arrays.stream(Kind.values()).map(kind -> generate(kind, size)).toList();
+	}
+
+	/** @return class-файл класса с методом указанного вида и размера. */
+	public static byte[] generate(Kind kind, int size) {
+		var classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+		classWriter.visit(V17, ACC_PUBLIC | ACC_SUPER, className(kind, size), null, "java/lang/Object", null);
+
+		var mv = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, "test", "(I)I", null, null);
+		mv.visitCode();
+
+		switch (kind) {
+			case CHUNKS        -> chunks(mv, size);
+			case CONDITIONS    -> conditions(mv, size);
+			case SHORT_CIRCUIT -> shortCircuit(mv, size);
+			case SWITCH        -> tableSwitch(mv, size);
+			case TRY_CATCH     -> tryCatch(mv, size);
+			case LOCALS        -> locals(mv, size);
+		}
+
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		classWriter.visitEnd();
+		return classWriter.toByteArray();
+	}
+
+	/** {@code if (x == i) x++;} для каждого {@code i}. */
+	private static void chunks(MethodVisitor mv, int size) {
+		for (int i = 0; i < size; i++) {
+			var skip = new Label();
+			mv.visitVarInsn(ILOAD, 0);
+			mv.visitLdcInsn(i);
+			mv.visitJumpInsn(IF_ICMPNE, skip);
+			mv.visitIincInsn(0, 1);
+			mv.visitLabel(skip);
+		}
+
+		mv.visitVarInsn(ILOAD, 0);
+		mv.visitInsn(IRETURN);
+	}
+
+	/** {@code if (x > 0) { x++; if (x > 1) { ... } else x--; } else x--;} */
+	private static void conditions(MethodVisitor mv, int size) {
+		Label[] elseLabels = new Label[size],
+				endLabels  = new Label[size];
+
+		for (int i = 0; i < size; i++) {
+			elseLabels[i] = new Label();
+			endLabels[i]  = new Label();
+
+			mv.visitVarInsn(ILOAD, 0);
+			mv.visitLdcInsn(i);
+			mv.visitJumpInsn(IF_ICMPLE, elseLabels[i]);
+			mv.visitIincInsn(0, 1);
+		}
+
+		for (int i = size - 1; i >= 0; i--) {
+			mv.visitJumpInsn(GOTO, endLabels[i]);
+			mv.visitLabel(elseLabels[i]);
+			mv.visitIincInsn(0, -1);
+			mv.visitLabel(endLabels[i]);
+		}
+
+		mv.visitVarInsn(ILOAD, 0);
+		mv.visitInsn(IRETURN);
+	}
+
+	/** {@code if (x != 0 && x != 1 && ...) x++; return x;} */
+	private static void shortCircuit(MethodVisitor mv, int size) {
+		var end = new Label();
+
+		for (int i = 0; i < size; i++) {
+			mv.visitVarInsn(ILOAD, 0);
+			mv.visitLdcInsn(i);
+			mv.visitJumpInsn(IF_ICMPEQ, end);
+		}
+
+		mv.visitIincInsn(0, 1);
+
+		mv.visitLabel(end);
+		mv.visitVarInsn(ILOAD, 0);
+		mv.visitInsn(IRETURN);
+	}
+
+	/** {@code switch (x) { case i -> y = i * 31; default -> y = -1; } return y;} */
+	private static void tableSwitch(MethodVisitor mv, int size) {
+		Label[] cases = new Label[size];
+		Arrays.setAll(cases, i -> new Label());
+
+		var defaultLabel = new Label();
+		var end = new Label();
+
+		mv.visitVarInsn(ILOAD, 0);
+		mv.visitTableSwitchInsn(0, size - 1, defaultLabel, cases);
+
+		for (int i = 0; i < size; i++) {
+			mv.visitLabel(cases[i]);
+			mv.visitLdcInsn(i * 31);
+			mv.visitVarInsn(ISTORE, 1);
+			mv.visitJumpInsn(GOTO, end);
+		}
+
+		mv.visitLabel(defaultLabel);
+		mv.visitInsn(ICONST_M1);
+		mv.visitVarInsn(ISTORE, 1);
+
+		mv.visitLabel(end);
+		mv.visitVarInsn(ILOAD, 1);
+		mv.visitInsn(IRETURN);
+	}
+
+	/**
+	 * {@code try { x /= x - 0; try { x /= x - 1; ... } catch (ArithmeticException ex) { x++; } x /= x - ...; }
+	 * catch (ArithmeticException ex) { x++; }} - {@code size} вложенных диапазонов, как их генерирует javac.
+	 */
+	private static void tryCatch(MethodVisitor mv, int size) {
+		Label[] starts = new Label[size],
+				ends = new Label[size],
+				handlers = new Label[size],
+				afters = new Label[size];
+
+		Arrays.setAll(starts, i -> new Label());
+		Arrays.setAll(ends, i -> new Label());
+		Arrays.setAll(handlers, i -> new Label());
+		Arrays.setAll(afters, i -> new Label());
+
+		// Внутренние диапазоны идут первыми, как у javac
+		for (int i = size - 1; i >= 0; i--) {
+			mv.visitTryCatchBlock(starts[i], ends[i], handlers[i], "java/lang/ArithmeticException");
+		}
+
+		for (int i = 0; i < size; i++) {
+			mv.visitLabel(starts[i]);
+			divide(mv, i);
+		}
+
+		divide(mv, size);
+
+		for (int i = size - 1; i >= 0; i--) {
+			mv.visitLabel(ends[i]);
+			mv.visitJumpInsn(GOTO, afters[i]);
+
+			mv.visitLabel(handlers[i]);
+			mv.visitVarInsn(ASTORE, 1);
+			mv.visitIincInsn(0, 1);
+
+			mv.visitLabel(afters[i]);
+			divide(mv, size * 2 - i);
+		}
+
+		mv.visitVarInsn(ILOAD, 0);
+		mv.visitInsn(IRETURN);
+	}
+
+	/** {@code x /= x - i} */
+	private static void divide(MethodVisitor mv, int i) {
+		mv.visitVarInsn(ILOAD, 0);
+		mv.visitVarInsn(ILOAD, 0);
+		mv.visitLdcInsn(i);
+		mv.visitInsn(ISUB);
+		mv.visitInsn(IDIV);
+		mv.visitVarInsn(ISTORE, 0);
+	}
+
+	/** {@code int x1 = x + 1, x2 = x1 + 2, ...; return x1 + x2 + ...;} */
+	private static void locals(MethodVisitor mv, int size) {
+		for (int i = 1; i <= size; i++) {
+			mv.visitVarInsn(ILOAD, i - 1);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(IADD);
+			mv.visitVarInsn(ISTORE, i);
+		}
+
+		mv.visitVarInsn(ILOAD, 1);
+
+		for (int i = 2; i <= size; i++) {
+			mv.visitVarInsn(ILOAD, i);
+			mv.visitInsn(IADD);
+		}
+
+		mv.visitInsn(IRETURN);
+	}
+}